@@ -0,0 +1,60 @@
+package com.fransua.burger_order_api;
+
+import com.fransua.burger_order_api.burger.Burger;
+import com.fransua.burger_order_api.order.Order;
+import com.fransua.burger_order_api.order.OrderLine;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/** Deterministic in-memory data shaped like production orders (a menu of 50, ~3 per order). */
+public final class BenchmarkFixtures {
+
+  public static final int MENU_SIZE = 50;
+  public static final int MAX_BURGERS_PER_ORDER = 5;
+
+  private BenchmarkFixtures() {}
+
+  public static List<Burger> menu() {
+    List<Burger> menu = new ArrayList<>(MENU_SIZE);
+    for (long id = 1; id <= MENU_SIZE; ++id) {
+      menu.add(new Burger(id, "Burger #" + id, BigDecimal.valueOf(250 + id * 37, 2)));
+    }
+    return menu;
+  }
+
+  public static List<Order> orders(int count) {
+    List<Burger> menu = menu();
+    SplittableRandom random = new SplittableRandom(42);
+    Instant createdAt = Instant.parse("2026-01-01T00:00:00Z");
+
+    List<Order> orders = new ArrayList<>(count);
+    for (long id = 1; id <= count; ++id) {
+      Order order = new Order();
+      order.setId(id);
+      order.setCreatedAt(createdAt.plus(id, ChronoUnit.MINUTES));
+      order.setVersion(0L);
+
+      Map<Long, Integer> quantities = OrderLine.countBurgerIds(randomBurgerIds(random));
+      List<Burger> burgers =
+          quantities.keySet().stream().map(burgerId -> menu.get((int) (burgerId - 1))).toList();
+      order.updateLines(burgers, quantities);
+      order.setTotalPrice(Order.totalPriceOf(order.getLines()));
+      orders.add(order);
+    }
+    return orders;
+  }
+
+  public static List<Long> randomBurgerIds(SplittableRandom random) {
+    int size = random.nextInt(1, MAX_BURGERS_PER_ORDER + 1);
+    List<Long> burgerIds = new ArrayList<>(size);
+    for (int i = 0; i < size; ++i) {
+      burgerIds.add(random.nextLong(1, MENU_SIZE + 1));
+    }
+    return burgerIds;
+  }
+}
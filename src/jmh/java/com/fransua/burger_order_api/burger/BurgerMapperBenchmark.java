@@ -0,0 +1,44 @@
+package com.fransua.burger_order_api.burger;
+
+import com.fransua.burger_order_api.BenchmarkFixtures;
+import com.fransua.burger_order_api.burger.dto.response.BurgerResponse;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BurgerMapperBenchmark {
+
+  private BurgerMapper burgerMapper;
+  private List<Burger> menu;
+
+  @Setup
+  public void setUp() {
+    burgerMapper = new BurgerMapperImpl();
+    menu = BenchmarkFixtures.menu();
+  }
+
+  @Benchmark
+  public BurgerResponse toResponse() {
+    return burgerMapper.toResponse(menu.get(0));
+  }
+
+  @Benchmark
+  public List<BurgerResponse> toResponseList() {
+    return burgerMapper.toResponseList(menu);
+  }
+}
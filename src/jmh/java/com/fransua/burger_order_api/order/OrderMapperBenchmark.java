@@ -0,0 +1,51 @@
+package com.fransua.burger_order_api.order;
+
+import com.fransua.burger_order_api.BenchmarkFixtures;
+import com.fransua.burger_order_api.order.dto.response.OrderResponse;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderMapperBenchmark {
+
+  /** Page sizes of {@code _list}: the default, a large page and a full report batch. */
+  @Param({"10", "100", "1000"})
+  public int orderCount;
+
+  private OrderMapper orderMapper;
+  private List<Order> orders;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    // order lines are mapped inline, so the generated mapper has no dependencies to wire
+    orderMapper = new OrderMapperImpl();
+    orders = BenchmarkFixtures.orders(orderCount);
+  }
+
+  @Benchmark
+  public OrderResponse toResponse() {
+    return orderMapper.toResponse(orders.get(0));
+  }
+
+  @Benchmark
+  public List<OrderResponse> toResponseList() {
+    return orderMapper.toResponseList(orders);
+  }
+}
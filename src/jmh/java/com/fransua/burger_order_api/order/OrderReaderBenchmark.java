@@ -0,0 +1,86 @@
+package com.fransua.burger_order_api.order;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fransua.burger_order_api.BenchmarkFixtures;
+import com.fransua.burger_order_api.order.dto.request.OrderRequest;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderReaderBenchmark {
+
+  /** One upload chunk and a typical nightly import. */
+  @Param({"1000", "100000"})
+  public int orderCount;
+
+  private ObjectReader orderReader;
+  private byte[] jsonArray;
+  private List<byte[]> ndjsonLines;
+
+  @Setup
+  public void setUp() throws IOException {
+    // same reader as JacksonReadersConfig#orderReader
+    ObjectMapper mapper = new ObjectMapper();
+    mapper.findAndRegisterModules();
+    orderReader = mapper.readerFor(OrderRequest.class);
+
+    SplittableRandom random = new SplittableRandom(42);
+    List<OrderRequest> requests = new ArrayList<>(orderCount);
+    for (int i = 0; i < orderCount; ++i) {
+      OrderRequest request = new OrderRequest();
+      request.setBurgerIds(BenchmarkFixtures.randomBurgerIds(random));
+      requests.add(request);
+    }
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    mapper.writeValue(outputStream, requests);
+    jsonArray = outputStream.toByteArray();
+
+    ndjsonLines = new ArrayList<>(orderCount);
+    for (OrderRequest request : requests) {
+      ndjsonLines.add(mapper.writeValueAsBytes(request));
+    }
+  }
+
+  @Benchmark
+  public void readJsonArray(Blackhole blackhole) throws IOException {
+    try (MappingIterator<OrderRequest> iterator =
+        orderReader.readValues(new ByteArrayInputStream(jsonArray))) {
+      while (iterator.hasNextValue()) {
+        blackhole.consume(iterator.nextValue());
+      }
+    }
+  }
+
+  @Benchmark
+  public void readNdjsonLines(Blackhole blackhole) throws IOException {
+    for (byte[] line : ndjsonLines) {
+      OrderRequest request = orderReader.readValue(line, 0, line.length);
+      blackhole.consume(request);
+    }
+  }
+}
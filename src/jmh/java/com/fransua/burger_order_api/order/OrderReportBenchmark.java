@@ -0,0 +1,58 @@
+package com.fransua.burger_order_api.order;
+
+import com.fransua.burger_order_api.BenchmarkFixtures;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** The CSV loop of {@code generateReport}, fed with flat rows instead of the database cursor. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderReportBenchmark {
+
+  /** A day and a quarter of orders. */
+  @Param({"1000", "100000"})
+  public int orderCount;
+
+  private List<Order> orders;
+
+  @Setup
+  public void setUp() {
+    orders = BenchmarkFixtures.orders(orderCount);
+  }
+
+  @Benchmark
+  public void writeReport() throws IOException {
+    try (OrderReportWriter reportWriter =
+        OrderReportWriter.open(OutputStream.nullOutputStream())) {
+      for (Order order : orders) {
+        for (OrderLine line : order.getLines()) {
+          reportWriter.addRow(
+              order.getId(),
+              order.getCreatedAt(),
+              line.getBurger().getId(),
+              line.getBurger().getName(),
+              line.getBurger().getUnitPrice(),
+              line.getQuantity());
+        }
+      }
+      reportWriter.finish();
+    }
+  }
+}
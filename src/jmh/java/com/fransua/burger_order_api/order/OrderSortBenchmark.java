@@ -0,0 +1,52 @@
+package com.fransua.burger_order_api.order;
+
+import com.fransua.burger_order_api.BenchmarkFixtures;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Restoring the price order of a page after {@code findAllByIdIn} returned it unsorted. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderSortBenchmark {
+
+  @Param({"10", "100", "1000"})
+  public int pageSize;
+
+  private List<Long> sortedIds;
+  private List<Order> unsortedOrders;
+
+  @Setup
+  public void setUp() {
+    unsortedOrders = new ArrayList<>(BenchmarkFixtures.orders(pageSize));
+    Collections.shuffle(unsortedOrders, new Random(42));
+
+    sortedIds = new ArrayList<>(pageSize);
+    for (Order order : unsortedOrders) {
+      sortedIds.add(order.getId());
+    }
+    Collections.shuffle(sortedIds, new Random(7));
+  }
+
+  @Benchmark
+  public List<Order> sortByIds() {
+    return OrderService.sortByIds(sortedIds, unsortedOrders);
+  }
+}
@@ -32,7 +32,7 @@ public class Burger {
   @SequenceGenerator(
       name = "burger_id_sequence",
       sequenceName = "burger_id_sequence",
-      allocationSize = 1)
+      allocationSize = 50)
   @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "burger_id_sequence")
   private Long id;
 
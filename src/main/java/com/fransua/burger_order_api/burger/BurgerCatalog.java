@@ -0,0 +1,192 @@
+package com.fransua.burger_order_api.burger;
+
+import com.fransua.burger_order_api.config.TransactionCallbacks;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Component
+public class BurgerCatalog {
+
+  private final BurgerRepository burgerRepository;
+  private final BurgerCatalogVersion burgerCatalogVersion;
+  private final TransactionTemplate consistentRead;
+  private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+  public BurgerCatalog(
+      BurgerRepository burgerRepository,
+      BurgerCatalogVersion burgerCatalogVersion,
+      PlatformTransactionManager transactionManager) {
+    this.burgerRepository = burgerRepository;
+    this.burgerCatalogVersion = burgerCatalogVersion;
+    this.consistentRead = new TransactionTemplate(transactionManager);
+    this.consistentRead.setReadOnly(true);
+    this.consistentRead.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+  }
+
+  public Snapshot current() {
+    Snapshot current = snapshot.get();
+    return current != null ? current : reload();
+  }
+
+  public Optional<List<Burger>> resolve(List<Long> ids) {
+    Optional<List<Burger>> resolved = current().resolve(ids);
+    return resolved.isPresent() ? resolved : reload().resolve(ids);
+  }
+
+  public boolean containsAll(Collection<Long> ids) {
+    return current().containsAll(ids) || reload().containsAll(ids);
+  }
+
+  @Scheduled(fixedDelayString = "${burger.catalog.reconcile-interval}")
+  public void reconcile() {
+    reload();
+  }
+
+  /**
+   * Reads the catalog version and the burgers from one database snapshot, so the loaded entries are
+   * exactly the ones that version stands for.
+   */
+  public Snapshot reload() {
+    Snapshot loaded =
+        consistentRead.execute(
+            status ->
+                Snapshot.of(
+                    burgerCatalogVersion.current(),
+                    burgerRepository.findAll().stream().map(Entry::of).toList()));
+
+    Snapshot reloaded =
+        snapshot.updateAndGet(
+            current -> {
+              // a change applied after commit may already be ahead of what was just read
+              if (current != null && current.version() >= loaded.version()) {
+                return current;
+              }
+              return loaded;
+            });
+
+    log.debug("Burger catalog reconciled at version {}.", reloaded.version());
+    return reloaded;
+  }
+
+  /** Must be called after the write is flushed, so the version read includes it. */
+  void put(Burger burger) {
+    Entry entry = Entry.of(burger);
+    long version = burgerCatalogVersion.current();
+    TransactionCallbacks.afterCommit(() -> apply(version, current -> current.with(entry, version)));
+  }
+
+  /** Must be called after the delete is flushed, so the version read includes it. */
+  void remove(Long id) {
+    long version = burgerCatalogVersion.current();
+    TransactionCallbacks.afterCommit(() -> apply(version, current -> current.without(id, version)));
+  }
+
+  private void apply(long version, UnaryOperator<Snapshot> change) {
+    current();
+    Snapshot applied =
+        snapshot.updateAndGet(
+            current -> current.version() + 1 == version ? change.apply(current) : current);
+
+    if (applied.version() < version) {
+      // a write from elsewhere landed in between, so the change alone would not be enough
+      reload();
+    }
+  }
+
+  private record Entry(long id, String name, BigDecimal unitPrice) {
+
+    static Entry of(Burger burger) {
+      BigDecimal unitPrice = burger.getUnitPrice().setScale(2, RoundingMode.HALF_UP);
+      return new Entry(burger.getId(), burger.getName(), unitPrice);
+    }
+
+    Burger toBurger() {
+      return new Burger(id, name, unitPrice);
+    }
+  }
+
+  /** Shared by every request without locking, so its arrays never leave this class. */
+  public static final class Snapshot {
+
+    private final long version;
+    private final long[] ids;
+    private final Entry[] entries;
+
+    private Snapshot(long version, long[] ids, Entry[] entries) {
+      this.version = version;
+      this.ids = ids;
+      this.entries = entries;
+    }
+
+    private static Snapshot of(long version, List<Entry> entries) {
+      Entry[] sorted = entries.toArray(Entry[]::new);
+      Arrays.sort(sorted, Comparator.comparingLong(Entry::id));
+
+      long[] ids = new long[sorted.length];
+      for (int i = 0; i < sorted.length; ++i) {
+        ids[i] = sorted[i].id();
+      }
+
+      return new Snapshot(version, ids, sorted);
+    }
+
+    public long version() {
+      return version;
+    }
+
+    public boolean containsAll(Collection<Long> requestedIds) {
+      return requestedIds.stream().allMatch(this::contains);
+    }
+
+    public Optional<List<Burger>> resolve(List<Long> requestedIds) {
+      List<Burger> burgers = new ArrayList<>(requestedIds.size());
+
+      for (Long id : requestedIds) {
+        Entry entry = id != null ? find(id) : null;
+        if (entry == null) {
+          return Optional.empty();
+        }
+        burgers.add(entry.toBurger());
+      }
+
+      return Optional.of(burgers);
+    }
+
+    private Entry find(long id) {
+      int index = Arrays.binarySearch(ids, id);
+      return index >= 0 ? entries[index] : null;
+    }
+
+    private boolean contains(Long id) {
+      return id != null && Arrays.binarySearch(ids, id) >= 0;
+    }
+
+    private Snapshot with(Entry entry, long newVersion) {
+      List<Entry> updated = new ArrayList<>(Arrays.asList(entries));
+      updated.removeIf(existing -> existing.id() == entry.id());
+      updated.add(entry);
+      return Snapshot.of(newVersion, updated);
+    }
+
+    private Snapshot without(long id, long newVersion) {
+      List<Entry> updated = new ArrayList<>(Arrays.asList(entries));
+      updated.removeIf(existing -> existing.id() == id);
+      return Snapshot.of(newVersion, updated);
+    }
+  }
+}
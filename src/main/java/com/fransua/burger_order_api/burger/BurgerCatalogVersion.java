@@ -0,0 +1,28 @@
+package com.fransua.burger_order_api.burger;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads the catalog-wide version kept in {@code burger_catalog_version}. A statement trigger on
+ * {@code burgers} bumps it on every write, so it changes whenever the catalog may have changed,
+ * including writes that bypass {@link BurgerService}.
+ */
+@Component
+public class BurgerCatalogVersion {
+
+  private static final String SELECT_VERSION_SQL =
+      "SELECT version FROM burger_catalog_version WHERE id = 1";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public BurgerCatalogVersion(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /** Inside a transaction that has written to {@code burgers}, this includes its own writes. */
+  public long current() {
+    Long version = jdbcTemplate.queryForObject(SELECT_VERSION_SQL, Long.class);
+    return version != null ? version : 0;
+  }
+}
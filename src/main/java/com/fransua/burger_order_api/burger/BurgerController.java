@@ -15,6 +15,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/burger")
@@ -24,9 +25,15 @@ public class BurgerController {
   private final BurgerService burgerService;
 
   @GetMapping
-  public ResponseEntity<List<BurgerResponse>> findAllBurgers() {
+  public ResponseEntity<List<BurgerResponse>> findAllBurgers(WebRequest request) {
+    // read before the burgers, so the tag is never newer than the body it is sent with
+    String eTag = String.valueOf(burgerService.findCatalogVersion());
+    if (request.checkNotModified(eTag)) {
+      return null;
+    }
+
     List<BurgerResponse> responses = burgerService.findAllBurgers();
-    return new ResponseEntity<>(responses, HttpStatus.OK);
+    return ResponseEntity.ok().eTag(eTag).body(responses);
   }
 
   @PostMapping
@@ -16,17 +16,26 @@ public class BurgerService {
 
   private final BurgerRepository burgerRepository;
   private final BurgerMapper burgerMapper;
+  private final BurgerCatalog burgerCatalog;
+  private final BurgerCatalogVersion burgerCatalogVersion;
 
+  @Transactional
   public BurgerResponse createBurger(BurgerRequest burgerRequest) {
     if (burgerRepository.existsByName(burgerRequest.getName())) {
       throw new DuplicateResourceException(
           "Burger with name '" + burgerRequest.getName() + "' is already exists.");
     }
     Burger burger = burgerMapper.toBurger(burgerRequest);
-    Burger savedBurger = burgerRepository.save(burger);
+    Burger savedBurger = burgerRepository.saveAndFlush(burger);
+    burgerCatalog.put(savedBurger);
     return burgerMapper.toResponse(savedBurger);
   }
 
+  /** Changes with every write to the catalog; cheaper to read than the catalog itself. */
+  public long findCatalogVersion() {
+    return burgerCatalogVersion.current();
+  }
+
   public List<BurgerResponse> findAllBurgers() {
     Iterable<Burger> burgerIterable = burgerRepository.findAll();
     List<Burger> foundBurgers = StreamSupport.stream(burgerIterable.spliterator(), false).toList();
@@ -49,7 +58,8 @@ public class BurgerService {
     }
 
     burgerMapper.updateBurgerFromRequest(burgerRequest, foundBurger);
-    burgerRepository.save(foundBurger);
+    burgerRepository.saveAndFlush(foundBurger);
+    burgerCatalog.put(foundBurger);
 
     return burgerMapper.toResponse(foundBurger);
   }
@@ -62,5 +72,7 @@ public class BurgerService {
             .orElseThrow(
                 () -> new NotFoundResourceException("Burger with ID '" + id + "' is not found."));
     burgerRepository.delete(burgerToDelete);
+    burgerRepository.flush();
+    burgerCatalog.remove(id);
   }
 }
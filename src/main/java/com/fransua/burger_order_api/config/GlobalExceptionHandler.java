@@ -1,7 +1,11 @@
 package com.fransua.burger_order_api.config;
 
+import com.fransua.burger_order_api.exception.CapacityExceededException;
 import com.fransua.burger_order_api.exception.DuplicateResourceException;
+import com.fransua.burger_order_api.exception.InvalidRequestException;
 import com.fransua.burger_order_api.exception.NotFoundResourceException;
+import com.fransua.burger_order_api.exception.PayloadTooLargeException;
+import com.fransua.burger_order_api.exception.StaleResourceException;
 import com.fransua.burger_order_api.exception.TechnicalFailureException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
@@ -30,6 +34,30 @@ public class GlobalExceptionHandler {
     return new ResponseEntity<>(exception.getMessage(), HttpStatus.NOT_FOUND);
   }
 
+  @ExceptionHandler(InvalidRequestException.class)
+  public ResponseEntity<String> handleInvalidRequest(InvalidRequestException exception) {
+    log.warn("Invalid request: {}", exception.getMessage());
+    return new ResponseEntity<>(exception.getMessage(), HttpStatus.BAD_REQUEST);
+  }
+
+  @ExceptionHandler(StaleResourceException.class)
+  public ResponseEntity<String> handleStaleResource(StaleResourceException exception) {
+    log.warn("Concurrent modification rejected: {}", exception.getMessage());
+    return new ResponseEntity<>(exception.getMessage(), HttpStatus.CONFLICT);
+  }
+
+  @ExceptionHandler(PayloadTooLargeException.class)
+  public ResponseEntity<String> handlePayloadTooLarge(PayloadTooLargeException exception) {
+    log.warn("Payload too large: {}", exception.getMessage());
+    return new ResponseEntity<>(exception.getMessage(), HttpStatus.PAYLOAD_TOO_LARGE);
+  }
+
+  @ExceptionHandler(CapacityExceededException.class)
+  public ResponseEntity<String> handleCapacityExceeded(CapacityExceededException exception) {
+    log.warn("Request rejected at capacity: {}", exception.getMessage());
+    return new ResponseEntity<>(exception.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
   @ExceptionHandler(TechnicalFailureException.class)
   public ResponseEntity<String> handleTechnicalFailure(TechnicalFailureException exception) {
     log.error("A critical server error occurred.", exception);
@@ -0,0 +1,78 @@
+package com.fransua.burger_order_api.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listens to the JFR {@code jdk.VirtualThreadPinned} event while the application runs on virtual
+ * threads, so a blocking call inside a {@code synchronized} section shows up in the log and in the
+ * {@code jvm.threads.virtual.pinned} counter instead of silently starving the carrier pool.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+  private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+  private static final int LOGGED_FRAMES = 8;
+
+  private final Duration threshold;
+  private final Counter pinnedCounter;
+  private RecordingStream recordingStream;
+
+  public VirtualThreadPinningMonitor(
+      MeterRegistry meterRegistry,
+      @Value("${virtual-threads.pinning-threshold}") Duration threshold) {
+    this.threshold = threshold;
+    this.pinnedCounter =
+        Counter.builder("jvm.threads.virtual.pinned")
+            .description("Virtual threads that blocked while pinned to their carrier")
+            .register(meterRegistry);
+  }
+
+  @PostConstruct
+  public void start() {
+    recordingStream = new RecordingStream();
+    recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+    recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+    recordingStream.startAsync();
+
+    log.info("Virtual thread pinning monitor started (threshold {}).", threshold);
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (recordingStream != null) {
+      recordingStream.close();
+    }
+  }
+
+  private void onPinned(RecordedEvent event) {
+    pinnedCounter.increment();
+
+    if (event.getStackTrace() == null) {
+      log.warn("Virtual thread pinned for {}.", event.getDuration());
+      return;
+    }
+
+    String frames =
+        event.getStackTrace().getFrames().stream()
+            .limit(LOGGED_FRAMES)
+            .map(RecordedFrame::getMethod)
+            .map(method -> method.getType().getName() + "." + method.getName())
+            .collect(Collectors.joining("\n\tat "));
+    log.warn("Virtual thread pinned for {}:\n\tat {}", event.getDuration(), frames);
+  }
+}
@@ -0,0 +1,38 @@
+package com.fransua.burger_order_api.email;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fransua.burger_order_api.exception.TechnicalFailureException;
+import com.fransua.burger_order_api.order.dto.request.OrderCreatedEmailNotificationRequest;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+public class NotificationOutbox {
+
+  private static final String INSERT_SQL =
+      "INSERT INTO notification_outbox (queue_name, payload, created_at) VALUES (?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectMapper objectMapper;
+
+  public NotificationOutbox(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.objectMapper = objectMapper;
+  }
+
+  public void enqueue(OrderCreatedEmailNotificationRequest request) {
+    try {
+      jdbcTemplate.update(
+          INSERT_SQL,
+          RabbitMQConfig.EMAIL_QUEUE_NAME,
+          objectMapper.writeValueAsString(request),
+          OffsetDateTime.ofInstant(Instant.now(), ZoneOffset.UTC));
+    } catch (JsonProcessingException e) {
+      throw new TechnicalFailureException("Failed to serialize order notification.", e);
+    }
+  }
+}
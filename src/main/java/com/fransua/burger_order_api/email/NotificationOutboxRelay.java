@@ -0,0 +1,135 @@
+package com.fransua.burger_order_api.email;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fransua.burger_order_api.order.dto.request.OrderCreatedEmailNotificationRequest;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Component
+public class NotificationOutboxRelay {
+
+  private static final String SELECT_BATCH_SQL =
+      "SELECT id, queue_name, payload FROM notification_outbox ORDER BY id LIMIT ?"
+          + " FOR UPDATE SKIP LOCKED";
+  private static final String DELETE_SQL = "DELETE FROM notification_outbox WHERE id = ?";
+  private static final String LAG_SQL =
+      "SELECT COUNT(*) AS pending,"
+          + " COALESCE(EXTRACT(EPOCH FROM now() - MIN(created_at)) * 1000, 0) AS lag_millis"
+          + " FROM notification_outbox";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final RabbitTemplate rabbitTemplate;
+  private final ObjectMapper objectMapper;
+  private final int batchSize;
+  private final Duration confirmTimeout;
+  private final AtomicLong lagMillis = new AtomicLong();
+  private final AtomicLong pendingCount = new AtomicLong();
+
+  public NotificationOutboxRelay(
+      JdbcTemplate jdbcTemplate,
+      TransactionTemplate transactionTemplate,
+      RabbitTemplate rabbitTemplate,
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry,
+      @Value("${notification.outbox.batch-size}") int batchSize,
+      @Value("${notification.outbox.confirm-timeout}") Duration confirmTimeout) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.rabbitTemplate = rabbitTemplate;
+    this.objectMapper = objectMapper;
+    this.batchSize = batchSize;
+    this.confirmTimeout = confirmTimeout;
+
+    Gauge.builder("notification.outbox.lag", lagMillis, lag -> lag.get() / 1000.0)
+        .description("Age of the oldest notification waiting in the outbox")
+        .baseUnit("seconds")
+        .register(meterRegistry);
+    Gauge.builder("notification.outbox.pending", pendingCount, AtomicLong::get)
+        .description("Notifications waiting in the outbox")
+        .register(meterRegistry);
+  }
+
+  @Scheduled(fixedDelayString = "${notification.outbox.relay-interval}")
+  public void relay() {
+    try {
+      int relayed;
+      do {
+        relayed = transactionTemplate.execute(status -> relayBatch());
+      } while (relayed == batchSize);
+    } catch (AmqpException | DataAccessException e) {
+      log.warn("Outbox relay stopped, pending notifications will be retried: {}", e.getMessage());
+    } finally {
+      updateLag();
+    }
+  }
+
+  private int relayBatch() {
+    List<OutboxRow> rows =
+        jdbcTemplate.query(
+            SELECT_BATCH_SQL,
+            (rs, rowNum) ->
+                new OutboxRow(
+                    rs.getLong("id"), rs.getString("queue_name"), rs.getString("payload")),
+            batchSize);
+
+    if (rows.isEmpty()) {
+      return 0;
+    }
+
+    rabbitTemplate.invoke(
+        operations -> {
+          for (OutboxRow row : rows) {
+            OrderCreatedEmailNotificationRequest request = readPayload(row);
+            if (request != null) {
+              operations.convertAndSend(row.queueName(), request);
+            }
+          }
+          operations.waitForConfirmsOrDie(confirmTimeout.toMillis());
+          return null;
+        });
+
+    jdbcTemplate.batchUpdate(DELETE_SQL, rows, rows.size(), (ps, row) -> ps.setLong(1, row.id()));
+
+    log.debug("Relayed {} notifications from the outbox.", rows.size());
+    return rows.size();
+  }
+
+  private OrderCreatedEmailNotificationRequest readPayload(OutboxRow row) {
+    try {
+      return objectMapper.readValue(row.payload(), OrderCreatedEmailNotificationRequest.class);
+    } catch (JsonProcessingException e) {
+      log.error("Dropping unreadable outbox notification #{}.", row.id(), e);
+      return null;
+    }
+  }
+
+  private void updateLag() {
+    try {
+      jdbcTemplate.query(
+          LAG_SQL,
+          rs -> {
+            pendingCount.set(rs.getLong("pending"));
+            lagMillis.set(rs.getLong("lag_millis"));
+          });
+    } catch (DataAccessException e) {
+      log.warn("Failed to measure outbox lag: {}", e.getMessage());
+    }
+  }
+
+  private record OutboxRow(long id, String queueName, String payload) {}
+}
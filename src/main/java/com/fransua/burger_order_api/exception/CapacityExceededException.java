@@ -0,0 +1,8 @@
+package com.fransua.burger_order_api.exception;
+
+public class CapacityExceededException extends RuntimeException {
+
+  public CapacityExceededException(String message) {
+    super(message);
+  }
+}
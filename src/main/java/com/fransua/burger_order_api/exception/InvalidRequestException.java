@@ -0,0 +1,8 @@
+package com.fransua.burger_order_api.exception;
+
+public class InvalidRequestException extends RuntimeException {
+
+  public InvalidRequestException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,8 @@
+package com.fransua.burger_order_api.exception;
+
+public class PayloadTooLargeException extends RuntimeException {
+
+  public PayloadTooLargeException(String message) {
+    super(message);
+  }
+}
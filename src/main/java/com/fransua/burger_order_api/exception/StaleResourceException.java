@@ -0,0 +1,8 @@
+package com.fransua.burger_order_api.exception;
+
+public class StaleResourceException extends RuntimeException {
+
+  public StaleResourceException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,6 @@
+package com.fransua.burger_order_api.order;
+
+import java.util.List;
+
+/** A dynamically built statement together with the values for its placeholders, in order. */
+public record BoundSql(String sql, List<Object> params) {}
@@ -0,0 +1,323 @@
+package com.fransua.burger_order_api.order;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fransua.burger_order_api.exception.TechnicalFailureException;
+import com.fransua.burger_order_api.order.dto.request.OrderRequest;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class NdjsonOrderParser {
+
+  private static final long MAX_SEGMENT_BYTES = 1L << 30;
+
+  private final ObjectReader orderReader;
+  private final int parallelism;
+  private final int queueCapacity;
+  private final ExecutorService workers;
+
+  public NdjsonOrderParser(
+      @Qualifier("orderReader") ObjectReader orderReader,
+      @Value("${order.upload.ndjson.parallelism}") int parallelism,
+      @Value("${order.upload.ndjson.queue-capacity}") int queueCapacity) {
+    this.orderReader = orderReader;
+    this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    this.queueCapacity = queueCapacity;
+    this.workers =
+        Executors.newFixedThreadPool(
+            this.parallelism, Thread.ofPlatform().name("ndjson-parser-", 0).daemon().factory());
+  }
+
+  public Records parse(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      List<Segment> segments = split(channel);
+      long totalLines = numberLines(segments);
+      return new Records(segments, totalLines);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    workers.shutdownNow();
+  }
+
+  private List<Segment> split(FileChannel channel) throws IOException {
+    long size = channel.size();
+    int segmentCount =
+        (int) Math.max(parallelism, (size + MAX_SEGMENT_BYTES - 1) / MAX_SEGMENT_BYTES);
+    long targetLength = Math.max(size / segmentCount, 1);
+
+    List<Segment> segments = new ArrayList<>(segmentCount);
+    long start = 0;
+    while (start < size) {
+      long end = Math.min(start + targetLength, size);
+      end = nextLineStart(channel, end, size);
+      segments.add(new Segment(channel.map(MapMode.READ_ONLY, start, end - start)));
+      start = end;
+    }
+    return segments;
+  }
+
+  private long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+    if (position >= size) {
+      return size;
+    }
+
+    long window = Math.min(64 * 1024, size - position);
+    while (true) {
+      MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, position, window);
+      for (int i = 0; i < buffer.limit(); ++i) {
+        if (buffer.get(i) == '\n') {
+          return position + i + 1;
+        }
+      }
+      position += window;
+      if (position >= size) {
+        return size;
+      }
+      window = Math.min(window, size - position);
+    }
+  }
+
+  private long numberLines(List<Segment> segments) {
+    List<Future<Long>> lineCounts = new ArrayList<>(segments.size());
+    for (Segment segment : segments) {
+      lineCounts.add(workers.submit(segment::countLines));
+    }
+
+    long firstLine = 1;
+    for (int i = 0; i < segments.size(); ++i) {
+      segments.get(i).lineNumber = firstLine;
+      firstLine += await(lineCounts.get(i));
+    }
+    return firstLine - 1;
+  }
+
+  private static long await(Future<Long> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new TechnicalFailureException("Interrupted while splitting NDJSON upload.", e);
+    } catch (ExecutionException e) {
+      throw new TechnicalFailureException("Failed to split NDJSON upload.", e.getCause());
+    }
+  }
+
+  /** A line-aligned slice of the file and how far its parser has got. */
+  private static class Segment {
+
+    private final MappedByteBuffer buffer;
+    private byte[] line = new byte[256];
+    private int lineStart;
+    private long lineNumber;
+    private UploadRecord pending;
+    private Future<?> parser;
+
+    Segment(MappedByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    long countLines() {
+      long lines = 0;
+      int limit = buffer.limit();
+      for (int i = 0; i < limit; ++i) {
+        if (buffer.get(i) == '\n') {
+          ++lines;
+        }
+      }
+      if (limit > 0 && buffer.get(limit - 1) != '\n') {
+        ++lines;
+      }
+      return lines;
+    }
+  }
+
+  /**
+   * A parser never blocks on a full queue: it parks its segment and frees the pool thread, so a
+   * slow consumer of one upload cannot stall the parsing of the others. The consumer resumes the
+   * parked segments once it has drained half of the queue.
+   */
+  public class Records implements Iterator<UploadRecord>, AutoCloseable {
+
+    private static final UploadRecord END_OF_SEGMENT = UploadRecord.failed(-1, null);
+
+    private final BlockingQueue<UploadRecord> queue = new ArrayBlockingQueue<>(queueCapacity);
+    private final List<Segment> segments;
+    private final List<Segment> parkedSegments = new ArrayList<>();
+    private final long totalLines;
+    private volatile boolean closed;
+    private int runningParsers;
+    private UploadRecord next;
+
+    private Records(List<Segment> segments, long totalLines) {
+      this.segments = segments;
+      this.totalLines = totalLines;
+      segments.forEach(this::submit);
+      runningParsers = segments.size();
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (next == null && runningParsers > 0) {
+        UploadRecord record = take();
+        if (record == END_OF_SEGMENT) {
+          --runningParsers;
+        } else {
+          next = record;
+        }
+      }
+      return next != null;
+    }
+
+    @Override
+    public UploadRecord next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      UploadRecord record = next;
+      next = null;
+      return record;
+    }
+
+    public long totalLines() {
+      return totalLines;
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+      for (Segment segment : segments) {
+        if (segment.parser != null) {
+          segment.parser.cancel(true);
+        }
+      }
+    }
+
+    private void submit(Segment segment) {
+      segment.parser = workers.submit(() -> parseSegment(segment));
+    }
+
+    private UploadRecord take() {
+      UploadRecord record;
+      try {
+        record = queue.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        close();
+        throw new TechnicalFailureException("Interrupted while reading NDJSON upload.", e);
+      }
+
+      if (queue.size() <= queueCapacity / 2) {
+        resumeParkedSegments();
+      }
+      return record;
+    }
+
+    private void resumeParkedSegments() {
+      synchronized (parkedSegments) {
+        parkedSegments.forEach(this::submit);
+        parkedSegments.clear();
+      }
+    }
+
+    // a segment is only parked while the queue is full, so the consumer is bound to resume it
+    private boolean park(Segment segment) {
+      synchronized (parkedSegments) {
+        if (queue.remainingCapacity() > 0) {
+          return false;
+        }
+        parkedSegments.add(segment);
+        return true;
+      }
+    }
+
+    private void parseSegment(Segment segment) {
+      while (!closed && !Thread.currentThread().isInterrupted()) {
+        if (segment.pending == null) {
+          segment.pending = nextRecord(segment);
+        }
+
+        if (queue.offer(segment.pending)) {
+          if (segment.pending == END_OF_SEGMENT) {
+            return;
+          }
+          segment.pending = null;
+        } else if (park(segment)) {
+          return;
+        }
+      }
+    }
+
+    private UploadRecord nextRecord(Segment segment) {
+      MappedByteBuffer buffer = segment.buffer;
+      int limit = buffer.limit();
+
+      try {
+        while (segment.lineStart <= limit) {
+          int lineEnd = segment.lineStart;
+          while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+            ++lineEnd;
+          }
+
+          int length = lineEnd - segment.lineStart;
+          if (length > segment.line.length) {
+            segment.line = new byte[Math.max(length, segment.line.length * 2)];
+          }
+          buffer.get(segment.lineStart, segment.line, 0, length);
+
+          long lineNumber = segment.lineNumber;
+          segment.lineStart = lineEnd + 1;
+          ++segment.lineNumber;
+
+          if (!isBlank(segment.line, length)) {
+            return parseLine(lineNumber, segment.line, length);
+          }
+        }
+      } catch (RuntimeException e) {
+        segment.lineStart = limit + 1;
+        return UploadRecord.failed(segment.lineNumber, e);
+      }
+      return END_OF_SEGMENT;
+    }
+
+    private UploadRecord parseLine(long lineNumber, byte[] line, int length) {
+      try {
+        OrderRequest order = orderReader.readValue(line, 0, length);
+        return UploadRecord.parsed(lineNumber, order);
+      } catch (IOException e) {
+        return UploadRecord.failed(lineNumber, new UncheckedIOException(e));
+      } catch (RuntimeException e) {
+        return UploadRecord.failed(lineNumber, e);
+      }
+    }
+
+    private boolean isBlank(byte[] line, int length) {
+      for (int i = 0; i < length; ++i) {
+        if (!Character.isWhitespace(line[i])) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -1,20 +1,26 @@
 package com.fransua.burger_order_api.order;
 
 import com.fransua.burger_order_api.burger.Burger;
+import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
-import jakarta.persistence.ForeignKey;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.JoinColumn;
-import jakarta.persistence.JoinTable;
-import jakarta.persistence.ManyToMany;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -37,21 +43,55 @@ public class Order {
   @SequenceGenerator(
       name = "order_id_sequence",
       sequenceName = "order_id_sequence",
-      allocationSize = 1)
+      allocationSize = 50)
   @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_id_sequence")
   private Long id;
 
   @NotNull private Instant createdAt;
 
+  @NotNull private BigDecimal totalPrice;
+
+  /** Incremented by Hibernate on every update, including changes to {@code lines}. */
+  @Version private Long version;
+
   @NotEmpty
-  @ManyToMany
-  @JoinTable(
-      name = "order_burgers",
-      joinColumns =
-          @JoinColumn(name = "order_id", foreignKey = @ForeignKey(name = "fk_order_burgers_order")),
-      inverseJoinColumns =
-          @JoinColumn(
-              name = "burger_id",
-              foreignKey = @ForeignKey(name = "fk_order_burgers_burger")))
-  private List<Burger> burgers;
+  @OrderBy("id.burgerId")
+  @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+  private List<OrderLine> lines = new ArrayList<>();
+
+  /** Sum of the line prices, stored so listings can sort on an index. */
+  public static BigDecimal totalPriceOf(Collection<OrderLine> lines) {
+    return lines.stream().map(OrderLine::linePrice).reduce(BigDecimal.ZERO, BigDecimal::add);
+  }
+
+  /**
+   * Brings the lines to {@code quantities}, keyed by burger ID. Lines that stay only have their
+   * quantity changed, so Hibernate writes one statement per changed burger instead of replacing
+   * every row of the order.
+   */
+  public void updateLines(List<Burger> burgers, Map<Long, Integer> quantities) {
+    lines.removeIf(line -> !quantities.containsKey(line.getBurger().getId()));
+
+    Map<Long, OrderLine> linesByBurgerId = new HashMap<>(lines.size() * 2);
+    for (OrderLine line : lines) {
+      linesByBurgerId.put(line.getBurger().getId(), line);
+    }
+
+    boolean added = false;
+    for (Burger burger : burgers) {
+      int quantity = quantities.get(burger.getId());
+      OrderLine line = linesByBurgerId.get(burger.getId());
+      if (line == null) {
+        lines.add(OrderLine.of(this, burger, quantity));
+        added = true;
+      } else if (line.getQuantity() != quantity) {
+        line.setQuantity(quantity);
+      }
+    }
+
+    if (added) {
+      // keep the order a reload would produce through @OrderBy
+      lines.sort(Comparator.comparing(line -> line.getBurger().getId()));
+    }
+  }
 }
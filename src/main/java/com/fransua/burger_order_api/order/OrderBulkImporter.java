@@ -0,0 +1,254 @@
+package com.fransua.burger_order_api.order;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fransua.burger_order_api.burger.Burger;
+import com.fransua.burger_order_api.burger.BurgerCatalog;
+import com.fransua.burger_order_api.email.NotificationOutbox;
+import com.fransua.burger_order_api.order.dto.request.OrderCreatedEmailNotificationRequest;
+import com.fransua.burger_order_api.order.dto.request.OrderRequest;
+import com.fransua.burger_order_api.order.dto.response.UploadStatsResponse;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Component
+public class OrderBulkImporter {
+
+  private static final String INSERT_ORDER_SQL =
+      "INSERT INTO orders (id, created_at, total_price) VALUES (?, ?, ?)";
+  private static final String INSERT_ORDER_BURGER_SQL =
+      "INSERT INTO order_burgers (order_id, burger_id, quantity) VALUES (?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final OrderIdAllocator orderIdAllocator;
+  private final BurgerCatalog burgerCatalog;
+  private final NotificationOutbox notificationOutbox;
+  private final OrderSalesRollup orderSalesRollup;
+  private final String orderReportEmailRecipient;
+  private final int chunkSize;
+
+  public OrderBulkImporter(
+      JdbcTemplate jdbcTemplate,
+      TransactionTemplate transactionTemplate,
+      OrderIdAllocator orderIdAllocator,
+      BurgerCatalog burgerCatalog,
+      NotificationOutbox notificationOutbox,
+      OrderSalesRollup orderSalesRollup,
+      @Value("${ORDER_REPORT_EMAIL_RECIPIENT}") String orderReportEmailRecipient,
+      @Value("${order.upload.chunk-size}") int chunkSize) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.orderIdAllocator = orderIdAllocator;
+    this.burgerCatalog = burgerCatalog;
+    this.notificationOutbox = notificationOutbox;
+    this.orderSalesRollup = orderSalesRollup;
+    this.orderReportEmailRecipient = orderReportEmailRecipient;
+    this.chunkSize = chunkSize;
+  }
+
+  public void importOrders(
+      MappingIterator<OrderRequest> iterator,
+      UploadStatsResponse stats,
+      BooleanSupplier cancellationRequested) {
+    Iterator<UploadRecord> records =
+        new Iterator<>() {
+          @Override
+          public boolean hasNext() {
+            return iterator.hasNext();
+          }
+
+          @Override
+          public UploadRecord next() {
+            try {
+              OrderRequest order = iterator.next();
+              return UploadRecord.parsed(iterator.getCurrentLocation().getLineNr(), order);
+            } catch (RuntimeException e) {
+              return UploadRecord.failed(iterator.getCurrentLocation().getLineNr(), e);
+            }
+          }
+        };
+
+    importRecords(records, stats, cancellationRequested);
+  }
+
+  public void importRecords(
+      Iterator<UploadRecord> records,
+      UploadStatsResponse stats,
+      BooleanSupplier cancellationRequested) {
+    List<UploadRecord> chunk = new ArrayList<>(chunkSize);
+
+    while (!cancellationRequested.getAsBoolean() && records.hasNext()) {
+      UploadRecord record = records.next();
+
+      if (record.parseError() != null) {
+        stats.incrementFailedCount();
+        log.error("Parsing failed at line: {}", record.lineNumber(), record.parseError());
+      } else {
+        chunk.add(record);
+      }
+
+      if (chunk.size() >= chunkSize) {
+        importChunk(chunk, stats);
+        chunk.clear();
+      }
+    }
+
+    if (!chunk.isEmpty() && !cancellationRequested.getAsBoolean()) {
+      importChunk(chunk, stats);
+    }
+  }
+
+  public void importChunk(List<UploadRecord> chunk, UploadStatsResponse stats) {
+    BurgerCatalog.Snapshot catalog = findCatalogCoveringChunk(chunk);
+
+    List<OrderRequest> validOrders = new ArrayList<>(chunk.size());
+    for (UploadRecord record : chunk) {
+      if (isValid(record.order(), catalog)) {
+        validOrders.add(record.order());
+      } else {
+        stats.incrementFailedCount();
+        log.warn(
+            "Skipping order at line {} with invalid burger IDs: {}",
+            record.lineNumber(),
+            record.order().getBurgerIds());
+      }
+    }
+
+    if (validOrders.isEmpty()) {
+      return;
+    }
+
+    List<Long> orderIds;
+    try {
+      orderIds = transactionTemplate.execute(status -> insertOrders(validOrders, catalog));
+    } catch (DataAccessException e) {
+      log.warn(
+          "Failed to import chunk of {} orders, retrying one by one.", validOrders.size(), e);
+      importOneByOne(validOrders, stats);
+      return;
+    }
+
+    stats.addSuccessfulCount(orderIds.size());
+  }
+
+  /**
+   * Retries a failed chunk against a freshly loaded catalog, one order per transaction, so only
+   * the orders that fail on their own are counted as failed.
+   */
+  private void importOneByOne(List<OrderRequest> orders, UploadStatsResponse stats) {
+    BurgerCatalog.Snapshot catalog = burgerCatalog.reload();
+
+    for (OrderRequest order : orders) {
+      if (!isValid(order, catalog)) {
+        stats.incrementFailedCount();
+        log.warn("Skipping order with invalid burger IDs: {}", order.getBurgerIds());
+        continue;
+      }
+
+      try {
+        transactionTemplate.execute(status -> insertOrders(List.of(order), catalog));
+        stats.incrementSuccessfulCount();
+      } catch (DataAccessException e) {
+        stats.incrementFailedCount();
+        log.error("Failed to import order with burger IDs: {}", order.getBurgerIds(), e);
+      }
+    }
+  }
+
+  private BurgerCatalog.Snapshot findCatalogCoveringChunk(List<UploadRecord> chunk) {
+    List<Long> requestedIds =
+        chunk.stream()
+            .map(record -> record.order().getBurgerIds())
+            .filter(Objects::nonNull)
+            .flatMap(List::stream)
+            .filter(Objects::nonNull)
+            .distinct()
+            .toList();
+
+    BurgerCatalog.Snapshot catalog = burgerCatalog.current();
+    return catalog.containsAll(requestedIds) ? catalog : burgerCatalog.reload();
+  }
+
+  private boolean isValid(OrderRequest order, BurgerCatalog.Snapshot catalog) {
+    List<Long> burgerIds = order.getBurgerIds();
+    return burgerIds != null && !burgerIds.isEmpty() && catalog.containsAll(burgerIds);
+  }
+
+  private List<Long> insertOrders(List<OrderRequest> orders, BurgerCatalog.Snapshot catalog) {
+    List<Long> orderIds = orderIdAllocator.allocate(orders.size());
+    OffsetDateTime createdAt = OffsetDateTime.ofInstant(Instant.now(), ZoneOffset.UTC);
+    List<List<OrderLine>> orderLines =
+        orders.stream().map(order -> toLines(order.getBurgerIds(), catalog)).toList();
+
+    List<Object[]> orderRows = new ArrayList<>(orders.size());
+    for (int i = 0; i < orders.size(); ++i) {
+      orderRows.add(new Object[] {orderIds.get(i), Order.totalPriceOf(orderLines.get(i))});
+    }
+
+    jdbcTemplate.batchUpdate(
+        INSERT_ORDER_SQL,
+        orderRows,
+        chunkSize,
+        (ps, row) -> {
+          ps.setLong(1, (Long) row[0]);
+          ps.setObject(2, createdAt);
+          ps.setBigDecimal(3, (BigDecimal) row[1]);
+        });
+
+    List<long[]> orderBurgers = new ArrayList<>();
+    for (int i = 0; i < orders.size(); ++i) {
+      long orderId = orderIds.get(i);
+      for (OrderLine line : orderLines.get(i)) {
+        orderBurgers.add(new long[] {orderId, line.getBurger().getId(), line.getQuantity()});
+      }
+    }
+
+    jdbcTemplate.batchUpdate(
+        INSERT_ORDER_BURGER_SQL,
+        orderBurgers,
+        chunkSize,
+        (ps, row) -> {
+          ps.setLong(1, row[0]);
+          ps.setLong(2, row[1]);
+          ps.setInt(3, (int) row[2]);
+        });
+
+    orderSalesRollup.recordCreated(createdAt.toInstant(), orderLines);
+
+    notificationOutbox.enqueue(chunkImportedNotification(orderIds));
+
+    return orderIds;
+  }
+
+  private static List<OrderLine> toLines(List<Long> burgerIds, BurgerCatalog.Snapshot catalog) {
+    Map<Long, Integer> quantities = OrderLine.countBurgerIds(burgerIds);
+    List<Burger> burgers = catalog.resolve(List.copyOf(quantities.keySet())).orElseThrow();
+    return burgers.stream()
+        .map(burger -> OrderLine.of(null, burger, quantities.get(burger.getId())))
+        .toList();
+  }
+
+  private OrderCreatedEmailNotificationRequest chunkImportedNotification(List<Long> orderIds) {
+    return new OrderCreatedEmailNotificationRequest(
+        this.orderReportEmailRecipient,
+        "Imported " + orderIds.size() + " orders",
+        "Imported order IDs: "
+            + orderIds.stream().map(id -> "#" + id).collect(Collectors.joining(", ")));
+  }
+}
@@ -2,15 +2,26 @@ package com.fransua.burger_order_api.order;
 
 import com.fransua.burger_order_api.exception.TechnicalFailureException;
 import com.fransua.burger_order_api.order.dto.request.FilterCriteriaRequest;
+import com.fransua.burger_order_api.order.dto.request.OrderBulkDeleteRequest;
+import com.fransua.burger_order_api.order.dto.request.OrderMultiGetRequest;
+import com.fransua.burger_order_api.order.dto.request.OrderPatchRequest;
 import com.fransua.burger_order_api.order.dto.request.OrderRequest;
+import com.fransua.burger_order_api.order.dto.response.OrderBulkDeleteResponse;
+import com.fransua.burger_order_api.order.dto.response.OrderCursorPageResponse;
 import com.fransua.burger_order_api.order.dto.response.OrderResponse;
+import com.fransua.burger_order_api.order.dto.response.OrderStatsResponse;
+import com.fransua.burger_order_api.order.dto.response.UploadJobResponse;
 import com.fransua.burger_order_api.order.dto.response.UploadStatsResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
@@ -19,12 +30,16 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
@@ -32,18 +47,42 @@ import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBo
 @AllArgsConstructor
 public class OrderController {
 
+  private static final String ESTIMATED_TOTAL_HEADER = "X-Total-Count-Estimate";
+
   private final OrderService orderService;
+  private final OrderUploadJobService orderUploadJobService;
+  private final ReportCache reportCache;
 
   @PostMapping
-  public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody OrderRequest orderRequest) {
-    OrderResponse response = orderService.createOrder(orderRequest);
+  public ResponseEntity<OrderResponse> createOrder(
+      @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+      @Valid @RequestBody OrderRequest orderRequest) {
+    OrderResponse response = orderService.createOrder(orderRequest, idempotencyKey);
     return new ResponseEntity<>(response, HttpStatus.CREATED);
   }
 
   @GetMapping("/{id}")
-  public ResponseEntity<OrderResponse> findOrder(@PathVariable Long id) {
-    OrderResponse response = orderService.findOrder(id);
-    return new ResponseEntity<>(response, HttpStatus.OK);
+  public ResponseEntity<OrderResponse> findOrder(@PathVariable Long id, WebRequest request) {
+    long orderVersion = orderService.findOrderVersion(id);
+    if (request.checkNotModified(orderService.findOrderETag(orderVersion))) {
+      return null;
+    }
+
+    VersionedOrder order = orderService.findOrder(id, orderVersion);
+    return ResponseEntity.ok().eTag(order.eTag()).body(order.response());
+  }
+
+  @PostMapping("/_mget")
+  public ResponseEntity<StreamingResponseBody> findOrders(
+      @Valid @RequestBody OrderMultiGetRequest request) {
+    orderService.checkOrderIds(request.getIds());
+
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.APPLICATION_JSON);
+
+    StreamingResponseBody streamingResponseBody =
+        outputStream -> orderService.findOrders(request.getIds(), outputStream);
+    return new ResponseEntity<>(streamingResponseBody, headers, HttpStatus.OK);
   }
 
   @PutMapping("/{id}")
@@ -53,12 +92,26 @@ public class OrderController {
     return new ResponseEntity<>(response, HttpStatus.OK);
   }
 
+  @PatchMapping("/{id}")
+  public ResponseEntity<OrderResponse> patchOrder(
+      @PathVariable Long id, @Valid @RequestBody OrderPatchRequest patchRequest) {
+    OrderResponse response = orderService.patchOrder(id, patchRequest);
+    return new ResponseEntity<>(response, HttpStatus.OK);
+  }
+
   @DeleteMapping("/{id}")
   public ResponseEntity<Void> deleteOrder(@PathVariable Long id) {
     orderService.deleteOrder(id);
     return ResponseEntity.noContent().build();
   }
 
+  @PostMapping("/_delete")
+  public ResponseEntity<OrderBulkDeleteResponse> deleteOrders(
+      @Valid @RequestBody OrderBulkDeleteRequest request) {
+    OrderBulkDeleteResponse response = orderService.deleteOrders(request);
+    return new ResponseEntity<>(response, HttpStatus.OK);
+  }
+
   @PostMapping("/_list")
   public ResponseEntity<Page<OrderResponse>> getPaginatedOrders(
       @PageableDefault(size = 10, sort = "createdAt") Pageable pageable) {
@@ -66,23 +119,79 @@ public class OrderController {
     return new ResponseEntity<>(orderPage, HttpStatus.OK);
   }
 
+  @PostMapping(value = "/_list", params = {"slice=true", "!cursor"})
+  public ResponseEntity<Slice<OrderResponse>> getOrderSlice(
+      @RequestParam(value = "estimateTotal", defaultValue = "false") boolean estimateTotal,
+      @PageableDefault(size = 10, sort = "createdAt") Pageable pageable) {
+    Slice<OrderResponse> orderSlice = orderService.getOrderSlice(pageable);
+
+    HttpHeaders headers = new HttpHeaders();
+    if (estimateTotal) {
+      headers.set(ESTIMATED_TOTAL_HEADER, String.valueOf(orderService.estimateOrderCount()));
+    }
+    return new ResponseEntity<>(orderSlice, headers, HttpStatus.OK);
+  }
+
   @PostMapping("/_report")
   public ResponseEntity<StreamingResponseBody> downloadReport(
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+      @RequestParam(value = "compression", required = false) String compression,
+      @RequestParam(value = "parallel", defaultValue = "false") boolean parallel,
       @Valid @RequestBody FilterCriteriaRequest filter) {
     HttpHeaders headers = new HttpHeaders();
+    ReportEncoding encoding = ReportEncoding.negotiate(compression, acceptEncoding);
 
     headers.setContentType(MediaType.parseMediaType("text/csv"));
     headers.setContentDisposition(
         ContentDisposition.parse("attachment; filename=\"orders_report.csv\""));
+    headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+    if (encoding != ReportEncoding.IDENTITY) {
+      headers.set(HttpHeaders.CONTENT_ENCODING, encoding.getToken());
+    }
+
+    ReportCache.ReportGenerator generator =
+        outputStream -> {
+          if (parallel) {
+            orderService.generateReportInParallel(filter, encoding, outputStream);
+          } else {
+            orderService.generateReport(filter, encoding, outputStream);
+          }
+        };
 
     StreamingResponseBody streamingResponseBody =
         outputStream -> {
-          orderService.generateReport(filter, outputStream);
+          if (!reportCache.isCacheable(filter)) {
+            generator.writeTo(outputStream);
+          } else if (!reportCache.serve(filter, encoding, outputStream)) {
+            reportCache.generateAndServe(filter, encoding, outputStream, generator);
+          }
         };
 
     return new ResponseEntity<>(streamingResponseBody, headers, HttpStatus.OK);
   }
 
+  @PostMapping(value = "/_list", params = "cursor")
+  public ResponseEntity<OrderCursorPageResponse> getOrdersByCursor(
+      @RequestParam("cursor") String cursor,
+      @PageableDefault(size = 10, sort = "createdAt") Pageable pageable) {
+    Sort.Order createdAtOrder = pageable.getSort().getOrderFor("createdAt");
+    boolean descending = createdAtOrder != null && createdAtOrder.isDescending();
+
+    OrderCursorPageResponse orderPage =
+        orderService.getOrdersAfter(cursor, pageable.getPageSize(), descending);
+    return new ResponseEntity<>(orderPage, HttpStatus.OK);
+  }
+
+  @PostMapping("/_stats")
+  public ResponseEntity<List<OrderStatsResponse>> getOrderStats(
+      @RequestParam(value = "bucket", defaultValue = "day") String bucket,
+      @RequestParam(value = "rollup", defaultValue = "false") boolean rollup,
+      @Valid @RequestBody FilterCriteriaRequest filter) {
+    List<OrderStatsResponse> stats =
+        orderService.getOrderStats(filter, StatsBucket.fromToken(bucket), rollup);
+    return new ResponseEntity<>(stats, HttpStatus.OK);
+  }
+
   @PostMapping(value = "/upload", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
   public ResponseEntity<UploadStatsResponse> uploadOrders(HttpServletRequest request) {
     try {
@@ -92,4 +201,41 @@ public class OrderController {
       throw new TechnicalFailureException("Failed to get input stream from request.", e);
     }
   }
+
+  @PostMapping(value = "/upload", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<UploadStatsResponse> uploadNdjsonOrders(HttpServletRequest request) {
+    try {
+      UploadStatsResponse stats =
+          orderUploadJobService.importNow(request.getInputStream(), UploadFormat.NDJSON);
+      return new ResponseEntity<>(stats, HttpStatus.OK);
+    } catch (IOException e) {
+      throw new TechnicalFailureException("Failed to get input stream from request.", e);
+    }
+  }
+
+  @PostMapping(
+      value = "/upload",
+      consumes = {MediaType.APPLICATION_OCTET_STREAM_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+      params = "async=true")
+  public ResponseEntity<UploadJobResponse> startUploadJob(HttpServletRequest request) {
+    try {
+      UploadFormat format = UploadFormat.fromContentType(request.getContentType());
+      UploadJobResponse job = orderUploadJobService.submit(request.getInputStream(), format);
+      return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
+    } catch (IOException e) {
+      throw new TechnicalFailureException("Failed to get input stream from request.", e);
+    }
+  }
+
+  @GetMapping("/upload/{jobId}")
+  public ResponseEntity<UploadJobResponse> findUploadJob(@PathVariable UUID jobId) {
+    UploadJobResponse job = orderUploadJobService.findJob(jobId);
+    return new ResponseEntity<>(job, HttpStatus.OK);
+  }
+
+  @DeleteMapping("/upload/{jobId}")
+  public ResponseEntity<UploadJobResponse> cancelUploadJob(@PathVariable UUID jobId) {
+    UploadJobResponse job = orderUploadJobService.cancelJob(jobId);
+    return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
+  }
 }
@@ -0,0 +1,52 @@
+package com.fransua.burger_order_api.order;
+
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps an approximate number of orders for listings that do not need an exact total. The value
+ * comes from the planner statistics in {@code pg_class.reltuples}; only a table that has never
+ * been analyzed falls back to an exact {@code COUNT(*)}. It is refreshed in the background, so
+ * reading it never touches the database.
+ */
+@Slf4j
+@Component
+public class OrderCountEstimator {
+
+  private static final String ESTIMATE_SQL =
+      "SELECT reltuples::BIGINT FROM pg_class WHERE oid = 'orders'::REGCLASS";
+  private static final String COUNT_SQL = "SELECT COUNT(*) FROM orders";
+  private static final long UNKNOWN = -1;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final AtomicLong estimatedCount = new AtomicLong(UNKNOWN);
+
+  public OrderCountEstimator(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  public long estimate() {
+    long count = estimatedCount.get();
+    if (count == UNKNOWN) {
+      refresh();
+      count = estimatedCount.get();
+    }
+    return count;
+  }
+
+  @Scheduled(fixedDelayString = "${order.list.count-estimate-refresh-interval}")
+  public void refresh() {
+    Long estimate = jdbcTemplate.queryForObject(ESTIMATE_SQL, Long.class);
+
+    // reltuples is -1 until the first VACUUM or ANALYZE of the table
+    if (estimate == null || estimate < 0) {
+      estimate = jdbcTemplate.queryForObject(COUNT_SQL, Long.class);
+      log.debug("Order statistics are not collected yet, counted {} orders.", estimate);
+    }
+
+    estimatedCount.set(estimate != null ? estimate : 0);
+  }
+}
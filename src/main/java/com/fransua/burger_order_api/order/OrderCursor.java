@@ -0,0 +1,39 @@
+package com.fransua.burger_order_api.order;
+
+import com.fransua.burger_order_api.exception.InvalidRequestException;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position after the last order of a keyset page. Clients only see it as an opaque URL-safe
+ * token; its fields match the {@code (created_at, id)} index the next page seeks into.
+ */
+public record OrderCursor(Instant createdAt, long id) {
+
+  private static final String SEPARATOR = "_";
+
+  public static OrderCursor of(OrderRepository.KeysetRow key) {
+    return new OrderCursor(key.getCreatedAt(), key.getId());
+  }
+
+  public static OrderCursor decode(String token) {
+    try {
+      String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      int separator = decoded.lastIndexOf(SEPARATOR);
+      return new OrderCursor(
+          Instant.parse(decoded.substring(0, separator)),
+          Long.parseLong(decoded.substring(separator + 1)));
+    } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeException e) {
+      throw new InvalidRequestException("Cursor '" + token + "' is invalid.");
+    }
+  }
+
+  public String encode() {
+    String raw = createdAt + SEPARATOR + id;
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+}
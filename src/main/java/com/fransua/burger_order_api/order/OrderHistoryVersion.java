@@ -0,0 +1,27 @@
+package com.fransua.burger_order_api.order;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads the version kept in {@code order_history_version}. Statement triggers on {@code orders}
+ * and {@code order_burgers} bump it whenever a write touches an order created more than a minute
+ * ago, including writes from other nodes or plain SQL.
+ */
+@Component
+public class OrderHistoryVersion {
+
+  private static final String SELECT_VERSION_SQL =
+      "SELECT version FROM order_history_version WHERE id = 1";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public OrderHistoryVersion(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  public long current() {
+    Long version = jdbcTemplate.queryForObject(SELECT_VERSION_SQL, Long.class);
+    return version != null ? version : 0;
+  }
+}
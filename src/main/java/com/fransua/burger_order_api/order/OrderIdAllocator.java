@@ -0,0 +1,64 @@
+package com.fransua.burger_order_api.order;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands out order IDs for JDBC writes using the same pooled-lo scheme Hibernate applies to {@link
+ * Order}: every {@code nextval} reserves the block {@code [value, value + increment)}, so blocks
+ * never overlap across threads or API nodes sharing the sequence.
+ */
+@Component
+public class OrderIdAllocator {
+
+  private static final String INCREMENT_SQL =
+      "SELECT increment_by FROM pg_sequences "
+          + "WHERE schemaname = current_schema() AND sequencename = 'order_id_sequence'";
+  private static final String NEXT_BLOCKS_SQL =
+      "SELECT nextval('order_id_sequence') FROM generate_series(1, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private long nextId;
+  private long blockEnd;
+
+  public OrderIdAllocator(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  public List<Long> allocate(int count) {
+    List<Long> ids = new ArrayList<>(count);
+
+    lock.lock();
+    try {
+      while (ids.size() < count && nextId < blockEnd) {
+        ids.add(nextId++);
+      }
+
+      int missing = count - ids.size();
+      if (missing > 0) {
+        // re-read on every reservation, the increment changes when ID_BLOCK_SIZE is raised
+        long blockSize = jdbcTemplate.queryForObject(INCREMENT_SQL, Long.class);
+        int blocksNeeded = (int) ((missing + blockSize - 1) / blockSize);
+        List<Long> blockStarts =
+            jdbcTemplate.queryForList(NEXT_BLOCKS_SQL, Long.class, blocksNeeded);
+
+        for (Long blockStart : blockStarts) {
+          nextId = blockStart;
+          blockEnd = blockStart + blockSize;
+          while (ids.size() < count && nextId < blockEnd) {
+            ids.add(nextId++);
+          }
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    return ids;
+  }
+}
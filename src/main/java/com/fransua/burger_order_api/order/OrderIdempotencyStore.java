@@ -0,0 +1,206 @@
+package com.fransua.burger_order_api.order;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fransua.burger_order_api.config.TransactionCallbacks;
+import com.fransua.burger_order_api.exception.DuplicateResourceException;
+import com.fransua.burger_order_api.exception.InvalidRequestException;
+import com.fransua.burger_order_api.exception.TechnicalFailureException;
+import com.fransua.burger_order_api.order.dto.request.OrderRequest;
+import com.fransua.burger_order_api.order.dto.response.OrderResponse;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers the response of every order created with an {@code Idempotency-Key}. Recent keys are
+ * answered from a bounded in-memory index, older ones from the {@code order_idempotency_keys}
+ * table until they expire.
+ */
+@Slf4j
+@Component
+public class OrderIdempotencyStore {
+
+  private static final String SELECT_SQL =
+      "SELECT request_hash, response, created_at FROM order_idempotency_keys"
+          + " WHERE idempotency_key = ? AND created_at > ?";
+  private static final String INSERT_SQL =
+      "INSERT INTO order_idempotency_keys (idempotency_key, request_hash, response, created_at)"
+          + " VALUES (?, ?, ?, ?) ON CONFLICT (idempotency_key) DO NOTHING";
+  private static final String PURGE_SQL =
+      "DELETE FROM order_idempotency_keys WHERE created_at <= ?";
+  private static final int MAX_KEY_LENGTH = 255;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectMapper objectMapper;
+  private final Duration ttl;
+  private final Map<String, StoredResponse> recentKeys;
+  private final ReentrantLock recentKeysLock = new ReentrantLock();
+
+  public OrderIdempotencyStore(
+      JdbcTemplate jdbcTemplate,
+      ObjectMapper objectMapper,
+      @Value("${order.idempotency.cache-size}") int cacheSize,
+      @Value("${order.idempotency.ttl}") Duration ttl) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.objectMapper = objectMapper;
+    this.ttl = ttl;
+    this.recentKeys =
+        new LinkedHashMap<>() {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+            return size() > cacheSize;
+          }
+        };
+  }
+
+  public void checkKey(String key) {
+    if (key.length() > MAX_KEY_LENGTH) {
+      throw new InvalidRequestException(
+          "Idempotency key must be at most " + MAX_KEY_LENGTH + " characters long.");
+    }
+  }
+
+  /** SHA-256 of the request serialized as JSON, so equal requests hash equally on every node. */
+  public String requestHash(OrderRequest request) {
+    try {
+      byte[] digest =
+          MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+      return HexFormat.of().formatHex(digest);
+    } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+      throw new TechnicalFailureException("Failed to hash idempotent order request.", e);
+    }
+  }
+
+  public Optional<OrderResponse> find(String key, String requestHash) {
+    Instant threshold = Instant.now().minus(ttl);
+
+    StoredResponse stored = findRecent(key, threshold);
+    if (stored == null) {
+      stored = findPersisted(key, threshold);
+      if (stored == null) {
+        return Optional.empty();
+      }
+      remember(key, stored);
+    }
+
+    if (!stored.requestHash().equals(requestHash)) {
+      throw new DuplicateResourceException(
+          "Idempotency key '" + key + "' was already used for a different order.");
+    }
+    return Optional.of(stored.response());
+  }
+
+  /**
+   * Records the response in the current transaction. Returns {@code false} when another request
+   * has already claimed the key, in which case the caller must roll back its own order.
+   */
+  public boolean save(String key, String requestHash, OrderResponse response) {
+    StoredResponse stored = new StoredResponse(requestHash, response, Instant.now());
+
+    int inserted =
+        jdbcTemplate.update(
+            INSERT_SQL,
+            key,
+            requestHash,
+            writeResponse(response),
+            OffsetDateTime.ofInstant(stored.createdAt(), ZoneOffset.UTC));
+
+    if (inserted == 0) {
+      return false;
+    }
+
+    TransactionCallbacks.afterCommit(() -> remember(key, stored));
+    return true;
+  }
+
+  @Scheduled(fixedDelayString = "${order.idempotency.purge-interval}")
+  public void purgeExpired() {
+    Instant threshold = Instant.now().minus(ttl);
+
+    recentKeysLock.lock();
+    try {
+      recentKeys.values().removeIf(stored -> !stored.createdAt().isAfter(threshold));
+    } finally {
+      recentKeysLock.unlock();
+    }
+
+    int purged =
+        jdbcTemplate.update(PURGE_SQL, OffsetDateTime.ofInstant(threshold, ZoneOffset.UTC));
+    if (purged > 0) {
+      log.debug("Purged {} expired idempotency keys.", purged);
+    }
+  }
+
+  private StoredResponse findRecent(String key, Instant threshold) {
+    recentKeysLock.lock();
+    try {
+      StoredResponse stored = recentKeys.get(key);
+      if (stored == null) {
+        return null;
+      }
+      if (!stored.createdAt().isAfter(threshold)) {
+        recentKeys.remove(key);
+        return null;
+      }
+      return stored;
+    } finally {
+      recentKeysLock.unlock();
+    }
+  }
+
+  private StoredResponse findPersisted(String key, Instant threshold) {
+    List<StoredResponse> rows =
+        jdbcTemplate.query(
+            SELECT_SQL,
+            (rs, rowNum) ->
+                new StoredResponse(
+                    rs.getString("request_hash"),
+                    readResponse(rs.getString("response")),
+                    rs.getObject("created_at", OffsetDateTime.class).toInstant()),
+            key,
+            OffsetDateTime.ofInstant(threshold, ZoneOffset.UTC));
+    return rows.isEmpty() ? null : rows.get(0);
+  }
+
+  private void remember(String key, StoredResponse stored) {
+    recentKeysLock.lock();
+    try {
+      recentKeys.put(key, stored);
+    } finally {
+      recentKeysLock.unlock();
+    }
+  }
+
+  private String writeResponse(OrderResponse response) {
+    try {
+      return objectMapper.writeValueAsString(response);
+    } catch (JsonProcessingException e) {
+      throw new TechnicalFailureException("Failed to serialize idempotent order response.", e);
+    }
+  }
+
+  private OrderResponse readResponse(String response) {
+    try {
+      return objectMapper.readValue(response, OrderResponse.class);
+    } catch (JsonProcessingException e) {
+      throw new TechnicalFailureException("Failed to read idempotent order response.", e);
+    }
+  }
+
+  private record StoredResponse(String requestHash, OrderResponse response, Instant createdAt) {}
+}
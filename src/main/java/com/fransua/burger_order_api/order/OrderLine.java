@@ -0,0 +1,75 @@
+package com.fransua.burger_order_api.order;
+
+import com.fransua.burger_order_api.burger.Burger;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.MapsId;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.Positive;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/** One burger of an order with its quantity, stored as a single {@code order_burgers} row. */
+@Entity(name = "order_burgers")
+@Table(name = "order_burgers")
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class OrderLine {
+
+  @EmbeddedId @EqualsAndHashCode.Include private OrderLineId id;
+
+  @ToString.Exclude
+  @MapsId("orderId")
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "order_id", foreignKey = @ForeignKey(name = "fk_order_burgers_order"))
+  private Order order;
+
+  @MapsId("burgerId")
+  @ManyToOne
+  @JoinColumn(name = "burger_id", foreignKey = @ForeignKey(name = "fk_order_burgers_burger"))
+  private Burger burger;
+
+  @Positive private int quantity;
+
+  public static OrderLine of(Order order, Burger burger, int quantity) {
+    Long orderId = order != null ? order.getId() : null;
+    return new OrderLine(new OrderLineId(orderId, burger.getId()), order, burger, quantity);
+  }
+
+  /**
+   * Collapses repeated IDs into quantities, keyed in burger ID order. Callers reject {@code null}
+   * IDs first.
+   */
+  public static Map<Long, Integer> countBurgerIds(List<Long> burgerIds) {
+    Map<Long, Integer> quantities = new TreeMap<>();
+    for (Long burgerId : burgerIds) {
+      quantities.merge(burgerId, 1, Integer::sum);
+    }
+    return quantities;
+  }
+
+  public BigDecimal linePrice() {
+    return burger.getUnitPrice().multiply(BigDecimal.valueOf(quantity));
+  }
+
+  /** A detached copy that keeps its quantity when this line is changed. */
+  OrderLine copy() {
+    return new OrderLine(id, order, burger, quantity);
+  }
+}
@@ -0,0 +1,27 @@
+package com.fransua.burger_order_api.order;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Embeddable
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class OrderLineId implements Serializable {
+
+  @Column(name = "order_id")
+  private Long orderId;
+
+  @Column(name = "burger_id")
+  private Long burgerId;
+}
@@ -1,21 +1,22 @@
 package com.fransua.burger_order_api.order;
 
-import com.fransua.burger_order_api.burger.BurgerMapper;
-import com.fransua.burger_order_api.order.dto.request.OrderRequest;
+import com.fransua.burger_order_api.order.dto.response.OrderLineResponse;
 import com.fransua.burger_order_api.order.dto.response.OrderResponse;
 import java.util.List;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.ReportingPolicy;
 
-@Mapper(
-    componentModel = "spring",
-    uses = {BurgerMapper.class},
-    unmappedTargetPolicy = ReportingPolicy.IGNORE)
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
 public interface OrderMapper {
 
-  Order toOrder(OrderRequest orderRequest);
-
+  @Mapping(target = "burgers", source = "lines")
   OrderResponse toResponse(Order order);
 
+  @Mapping(target = "id", source = "burger.id")
+  @Mapping(target = "name", source = "burger.name")
+  @Mapping(target = "unitPrice", source = "burger.unitPrice")
+  OrderLineResponse toLineResponse(OrderLine line);
+
   List<OrderResponse> toResponseList(List<Order> orders);
 }
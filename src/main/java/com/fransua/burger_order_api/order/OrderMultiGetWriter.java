@@ -0,0 +1,96 @@
+package com.fransua.burger_order_api.order;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fransua.burger_order_api.exception.InvalidRequestException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Writes the orders for a list of IDs as an {@code OrderMultiGetResponse} JSON object. IDs are
+ * resolved with one {@code findAllByIdIn} query per batch and each batch is flushed before the
+ * next one is loaded, so large requests hold neither all entities nor the whole body in memory.
+ */
+@Component
+public class OrderMultiGetWriter {
+
+  private final OrderRepository orderRepository;
+  private final OrderMapper orderMapper;
+  private final ObjectMapper objectMapper;
+  private final int maxIds;
+  private final int batchSize;
+
+  public OrderMultiGetWriter(
+      OrderRepository orderRepository,
+      OrderMapper orderMapper,
+      ObjectMapper objectMapper,
+      @Value("${order.mget.max-ids}") int maxIds,
+      @Value("${order.mget.batch-size}") int batchSize) {
+    this.orderRepository = orderRepository;
+    this.orderMapper = orderMapper;
+    this.objectMapper = objectMapper;
+    this.maxIds = maxIds;
+    this.batchSize = batchSize;
+  }
+
+  public void checkSize(List<Long> ids) {
+    if (ids.size() > maxIds) {
+      throw new InvalidRequestException(
+          "At most " + maxIds + " order IDs can be requested at once, got " + ids.size() + ".");
+    }
+  }
+
+  /** Orders follow the request order, repeated IDs included; missing IDs go to {@code notFound}. */
+  public void write(List<Long> ids, OutputStream outputStream) throws IOException {
+    List<Long> notFound = new ArrayList<>();
+
+    try (JsonGenerator generator =
+        objectMapper.createGenerator(StreamUtils.nonClosing(outputStream))) {
+      generator.writeStartObject();
+      generator.writeArrayFieldStart("orders");
+
+      for (int from = 0; from < ids.size(); from += batchSize) {
+        List<Long> batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+        Map<Long, Order> ordersById = findBatch(batch);
+
+        for (Long id : batch) {
+          Order order = ordersById.get(id);
+          if (order != null) {
+            generator.writeObject(orderMapper.toResponse(order));
+          } else {
+            notFound.add(id);
+          }
+        }
+        generator.flush();
+      }
+
+      generator.writeEndArray();
+      generator.writeArrayFieldStart("notFound");
+      for (Long id : notFound) {
+        generator.writeNumber(id);
+      }
+      generator.writeEndArray();
+      generator.writeEndObject();
+    }
+  }
+
+  private Map<Long, Order> findBatch(List<Long> batch) {
+    List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(batch));
+    List<Order> orders = orderRepository.findAllByIdIn(distinctIds, Sort.unsorted());
+
+    Map<Long, Order> ordersById = new HashMap<>(orders.size() * 2);
+    for (Order order : orders) {
+      ordersById.put(order.getId(), order);
+    }
+    return ordersById;
+  }
+}
@@ -0,0 +1,151 @@
+package com.fransua.burger_order_api.order;
+
+import com.fransua.burger_order_api.exception.InvalidRequestException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Deletes orders with set-based statements, at most {@code order.purge.batch-size} per
+ * transaction, so large deletes never hold row locks for long. Order lines go with their order
+ * through {@code ON DELETE CASCADE}; the sales rollup and both caches are updated per batch.
+ */
+@Slf4j
+@Component
+public class OrderPurger {
+
+  private static final String LOCK_BY_IDS_SQL =
+      "SELECT id, created_at FROM orders WHERE id = ANY(?) ORDER BY id FOR UPDATE";
+  private static final String LOCK_CREATED_BEFORE_SQL =
+      "SELECT id, created_at FROM orders WHERE created_at < ? ORDER BY created_at, id LIMIT ?"
+          + " FOR UPDATE SKIP LOCKED";
+  private static final String DELETE_SQL = "DELETE FROM orders WHERE id = ANY(?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final OrderSalesRollup orderSalesRollup;
+  private final ReportCache reportCache;
+  private final OrderResponseCache orderResponseCache;
+  private final int maxIds;
+  private final int batchSize;
+  private final Duration retentionPeriod;
+
+  public OrderPurger(
+      JdbcTemplate jdbcTemplate,
+      TransactionTemplate transactionTemplate,
+      OrderSalesRollup orderSalesRollup,
+      ReportCache reportCache,
+      OrderResponseCache orderResponseCache,
+      @Value("${order.purge.max-ids}") int maxIds,
+      @Value("${order.purge.batch-size}") int batchSize,
+      @Value("${order.retention.period}") Duration retentionPeriod) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.orderSalesRollup = orderSalesRollup;
+    this.reportCache = reportCache;
+    this.orderResponseCache = orderResponseCache;
+    this.maxIds = maxIds;
+    this.batchSize = batchSize;
+    this.retentionPeriod = retentionPeriod;
+  }
+
+  public void checkSize(List<Long> ids) {
+    if (ids.size() > maxIds) {
+      throw new InvalidRequestException(
+          "At most " + maxIds + " orders can be deleted at once, got " + ids.size() + ".");
+    }
+  }
+
+  public void checkCutoff(Instant cutoff) {
+    Instant latestCutoff = Instant.now().minus(retentionPeriod);
+    if (cutoff.isAfter(latestCutoff)) {
+      throw new InvalidRequestException(
+          "Only orders older than the retention period can be deleted, cutoff must not be after "
+              + latestCutoff
+              + ".");
+    }
+  }
+
+  /** Returns how many of the given orders existed and were deleted. */
+  public int deleteByIds(List<Long> ids) {
+    List<Long> distinctIds = ids.stream().distinct().toList();
+
+    int deleted = 0;
+    for (int from = 0; from < distinctIds.size(); from += batchSize) {
+      Long[] batch =
+          distinctIds
+              .subList(from, Math.min(from + batchSize, distinctIds.size()))
+              .toArray(Long[]::new);
+      deleted +=
+          transactionTemplate.execute(status -> deleteBatch(LOCK_BY_IDS_SQL, (Object) batch));
+    }
+    return deleted;
+  }
+
+  /**
+   * Deletes orders created before {@code cutoff}, oldest first. Orders locked by a concurrent
+   * update are skipped and left for the next run.
+   */
+  public int deleteCreatedBefore(Instant cutoff) {
+    OffsetDateTime cutoffTime = OffsetDateTime.ofInstant(cutoff, ZoneOffset.UTC);
+
+    int deleted = 0;
+    int batchDeleted;
+    do {
+      batchDeleted =
+          transactionTemplate.execute(
+              status -> deleteBatch(LOCK_CREATED_BEFORE_SQL, cutoffTime, batchSize));
+      deleted += batchDeleted;
+    } while (batchDeleted == batchSize);
+    return deleted;
+  }
+
+  @Scheduled(cron = "${order.retention.purge-cron}")
+  public void purgeExpired() {
+    Instant cutoff = Instant.now().minus(retentionPeriod);
+
+    int purged = deleteCreatedBefore(cutoff);
+    if (purged > 0) {
+      log.info("Purged {} orders created before {}.", purged, cutoff);
+    }
+  }
+
+  private int deleteBatch(String lockSql, Object... params) {
+    List<LockedOrder> orders =
+        jdbcTemplate.query(
+            lockSql,
+            (rs, rowNum) ->
+                new LockedOrder(
+                    rs.getLong("id"),
+                    rs.getObject("created_at", OffsetDateTime.class).toInstant()),
+            params);
+
+    if (orders.isEmpty()) {
+      return 0;
+    }
+
+    List<Long> ids = orders.stream().map(LockedOrder::id).toList();
+    orderSalesRollup.recordDeleted(ids);
+    jdbcTemplate.update(DELETE_SQL, (Object) ids.toArray(Long[]::new));
+
+    Instant from = orders.get(0).createdAt();
+    Instant to = from;
+    for (LockedOrder order : orders) {
+      from = order.createdAt().isBefore(from) ? order.createdAt() : from;
+      to = order.createdAt().isAfter(to) ? order.createdAt() : to;
+    }
+    reportCache.invalidate(from, to);
+    orderResponseCache.invalidateAll(ids);
+    return orders.size();
+  }
+
+  private record LockedOrder(long id, Instant createdAt) {}
+}
@@ -0,0 +1,117 @@
+package com.fransua.burger_order_api.order;
+
+import com.fransua.burger_order_api.order.dto.request.FilterCriteriaRequest;
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+/** Streams one row per order line, ordered by creation time and order ID. */
+@Component
+public class OrderReportQuery {
+
+  private static final String SELECT_SQL =
+      "SELECT o.id AS order_id, o.created_at, b.id AS burger_id, b.name AS burger_name,"
+          + " b.unit_price, ob.quantity FROM orders o JOIN order_burgers ob ON ob.order_id = o.id"
+          + " JOIN burgers b ON b.id = ob.burger_id WHERE TRUE";
+  private static final String CREATED_AT_FROM_SQL = " AND o.created_at >= ?";
+  private static final String CREATED_AT_TO_SQL = " AND o.created_at <= ?";
+  private static final String CREATED_AT_BEFORE_SQL = " AND o.created_at < ?";
+  private static final String BURGER_NAME_SQL =
+      " AND EXISTS (SELECT 1 FROM order_burgers fob JOIN burgers fb ON fb.id = fob.burger_id"
+          + " WHERE fob.order_id = o.id AND fb.name ILIKE ?)";
+  private static final String ORDER_BY_SQL = " ORDER BY o.created_at, o.id";
+  private static final String RANGE_SQL = "SELECT MIN(created_at), MAX(created_at) FROM orders";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final int fetchSize;
+
+  public OrderReportQuery(
+      JdbcTemplate jdbcTemplate, @Value("${order.report.fetch-size}") int fetchSize) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.fetchSize = fetchSize;
+  }
+
+  /**
+   * Must run inside a transaction: PostgreSQL only honours the fetch size with auto-commit off,
+   * otherwise the whole result set is buffered in memory.
+   */
+  public void streamRows(FilterCriteriaRequest filter, RowCallbackHandler rowHandler) {
+    streamRows(
+        filter.getOrderCreatedAtFrom(),
+        filter.getOrderCreatedAtTo(),
+        false,
+        filter.getBurgerName(),
+        statement -> {},
+        rowHandler);
+  }
+
+  /**
+   * Same as {@link #streamRows(FilterCriteriaRequest, RowCallbackHandler)} for one time slice.
+   * {@code onStatement} receives the statement before it runs, so another thread can cancel it.
+   */
+  public void streamRows(
+      Instant createdAtFrom,
+      Instant createdAtTo,
+      boolean toExclusive,
+      String burgerName,
+      Consumer<PreparedStatement> onStatement,
+      RowCallbackHandler rowHandler) {
+    BoundSql query = rowsSql(createdAtFrom, createdAtTo, toExclusive, burgerName);
+
+    jdbcTemplate.query(
+        connection -> {
+          PreparedStatement statement = connection.prepareStatement(query.sql());
+          statement.setFetchSize(fetchSize);
+          for (int i = 0; i < query.params().size(); ++i) {
+            statement.setObject(i + 1, query.params().get(i));
+          }
+          onStatement.accept(statement);
+          return statement;
+        },
+        rowHandler);
+  }
+
+  public static BoundSql rowsSql(
+      Instant createdAtFrom, Instant createdAtTo, boolean toExclusive, String burgerName) {
+    StringBuilder sql = new StringBuilder(SELECT_SQL);
+    List<Object> params = new ArrayList<>(3);
+
+    if (createdAtFrom != null) {
+      sql.append(CREATED_AT_FROM_SQL);
+      params.add(OffsetDateTime.ofInstant(createdAtFrom, ZoneOffset.UTC));
+    }
+    if (createdAtTo != null) {
+      sql.append(toExclusive ? CREATED_AT_BEFORE_SQL : CREATED_AT_TO_SQL);
+      params.add(OffsetDateTime.ofInstant(createdAtTo, ZoneOffset.UTC));
+    }
+    if (burgerName != null) {
+      sql.append(BURGER_NAME_SQL);
+      params.add("%" + burgerName + "%");
+    }
+    sql.append(ORDER_BY_SQL);
+
+    return new BoundSql(sql.toString(), params);
+  }
+
+  public Optional<CreatedAtRange> findCreatedAtRange() {
+    return Optional.ofNullable(
+        jdbcTemplate.queryForObject(
+            RANGE_SQL,
+            (rs, rowNum) -> {
+              OffsetDateTime min = rs.getObject(1, OffsetDateTime.class);
+              OffsetDateTime max = rs.getObject(2, OffsetDateTime.class);
+              return min == null ? null : new CreatedAtRange(min.toInstant(), max.toInstant());
+            }));
+  }
+
+  public record CreatedAtRange(Instant from, Instant to) {}
+}
@@ -0,0 +1,146 @@
+package com.fransua.burger_order_api.order;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fransua.burger_order_api.order.dto.response.OrderResponseCsv;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+/**
+ * Expects the rows of one order to be adjacent. Burgers are rendered like {@code
+ * Burger#toString()}, followed by {@code " x <quantity>"} when a line holds more than one.
+ */
+class OrderReportWriter implements RowCallbackHandler, Closeable {
+
+  // built once: module discovery and schema introspection are too costly per report
+  private static final CsvMapper CSV_MAPPER = createCsvMapper();
+  private static final CsvSchema CSV_SCHEMA = CSV_MAPPER.schemaFor(OrderResponseCsv.class);
+  private static final ObjectWriter CSV_WRITER = CSV_MAPPER.writer(CSV_SCHEMA.withHeader());
+  private static final ObjectWriter CSV_ROWS_WRITER = CSV_MAPPER.writer(CSV_SCHEMA);
+  private static final byte[] CSV_HEADER = createHeader();
+
+  private final SequenceWriter writer;
+  private final OrderResponseCsv line = new OrderResponseCsv();
+  private final StringBuilder burgers = new StringBuilder(256);
+  private long currentOrderId;
+  private Instant currentCreatedAt;
+  private boolean empty = true;
+
+  private OrderReportWriter(SequenceWriter writer) {
+    this.writer = writer;
+  }
+
+  static OrderReportWriter open(OutputStream outputStream) throws IOException {
+    return new OrderReportWriter(CSV_WRITER.writeValues(outputStream));
+  }
+
+  /** Writes no header, for slices appended after the header or other slices. */
+  static OrderReportWriter openRows(OutputStream outputStream) throws IOException {
+    return new OrderReportWriter(CSV_ROWS_WRITER.writeValues(outputStream));
+  }
+
+  static byte[] header() {
+    return CSV_HEADER.clone();
+  }
+
+  @Override
+  public void processRow(ResultSet rs) throws SQLException {
+    addRow(
+        rs.getLong("order_id"),
+        rs.getObject("created_at", OffsetDateTime.class).toInstant(),
+        rs.getLong("burger_id"),
+        rs.getString("burger_name"),
+        rs.getBigDecimal("unit_price"),
+        rs.getInt("quantity"));
+  }
+
+  void addRow(
+      long orderId,
+      Instant createdAt,
+      long burgerId,
+      String burgerName,
+      BigDecimal unitPrice,
+      int quantity) {
+    if (currentCreatedAt != null && orderId != currentOrderId) {
+      writeCurrentOrder();
+    }
+
+    if (currentCreatedAt == null) {
+      currentOrderId = orderId;
+      currentCreatedAt = createdAt;
+    } else {
+      burgers.append("; ");
+    }
+
+    burgers
+        .append("Burger(id=")
+        .append(burgerId)
+        .append(", name=")
+        .append(burgerName)
+        .append(", unitPrice=")
+        .append(unitPrice)
+        .append(')');
+    if (quantity > 1) {
+      burgers.append(" x ").append(quantity);
+    }
+  }
+
+  void finish() {
+    if (currentCreatedAt != null) {
+      writeCurrentOrder();
+    }
+  }
+
+  boolean isEmpty() {
+    return empty;
+  }
+
+  @Override
+  public void close() throws IOException {
+    writer.close();
+  }
+
+  private void writeCurrentOrder() {
+    line.setId(currentOrderId);
+    line.setCreatedAt(currentCreatedAt);
+    line.setBurgers(burgers.toString());
+
+    try {
+      writer.write(line);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    burgers.setLength(0);
+    currentCreatedAt = null;
+    empty = false;
+  }
+
+  private static CsvMapper createCsvMapper() {
+    CsvMapper mapper = new CsvMapper();
+    mapper.findAndRegisterModules();
+    return mapper;
+  }
+
+  private static byte[] createHeader() {
+    List<String> names = new ArrayList<>();
+    CSV_SCHEMA.forEach(column -> names.add(column.getName()));
+
+    String separator = String.valueOf(CSV_SCHEMA.getColumnSeparator());
+    String header = String.join(separator, names) + new String(CSV_SCHEMA.getLineSeparator());
+    return header.getBytes(StandardCharsets.UTF_8);
+  }
+}
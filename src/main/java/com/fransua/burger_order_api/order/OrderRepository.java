@@ -3,9 +3,9 @@ package com.fransua.burger_order_api.order;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Stream;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -19,30 +19,59 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
   @NonNull
   @Override
-  @EntityGraph(attributePaths = {"burgers"})
+  @EntityGraph(attributePaths = {"lines", "lines.burger"})
   Optional<Order> findById(@NonNull Long id);
 
+  @Query(value = "SELECT version FROM orders WHERE id = :id", nativeQuery = true)
+  Optional<Long> findVersionById(@Param("id") Long id);
+
+  @Query("SELECT o.id FROM orders o")
+  Page<Long> findIds(Pageable pageable);
+
+  @Query("SELECT o.id FROM orders o")
+  Slice<Long> findIdSlice(Pageable pageable);
+
+  Slice<Order> findSliceBy(Pageable pageable);
+
+  @EntityGraph(attributePaths = {"lines", "lines.burger"})
+  List<Order> findAllByIdIn(List<Long> ids, Sort sort);
+
+  // created_at comes back with the ID, so the next cursor never depends on the order still existing
   @Query(
       value =
-          "SELECT DISTINCT o.* FROM orders o JOIN order_burgers ob ON o.id = ob.order_id JOIN"
-              + " burgers b ON b.id = ob.burger_id WHERE (CAST(:orderCreatedAtFrom AS timestamp)"
-              + " IS NULL OR o.created_at >= CAST(:orderCreatedAtFrom AS timestamp)) AND"
-              + " (CAST(:orderCreatedAtTo AS timestamp) IS NULL OR o.created_at <="
-              + " CAST(:orderCreatedAtTo AS timestamp)) AND (CAST(:burgerName AS text) IS NULL OR"
-              + " LOWER(b.name) LIKE LOWER(CONCAT('%', CAST(:burgerName AS text), '%')))",
+          "SELECT created_at AS \"createdAt\", id FROM orders ORDER BY created_at, id LIMIT :limit",
       nativeQuery = true)
-  Stream<Order> findOrdersByFilter(
-      @Param("orderCreatedAtFrom") Instant orderCreatedAtFrom,
-      @Param("orderCreatedAtTo") Instant orderCreatedAtTo,
-      @Param("burgerName") String burgerName);
+  List<KeysetRow> findFirstKeysByCreatedAt(@Param("limit") int limit);
 
   @Query(
-      "SELECT o.id FROM orders o LEFT JOIN o.burgers b GROUP BY o.id "
-          + "ORDER BY "
-          + "CASE WHEN :isDesc = false THEN SUM(COALESCE(b.unitPrice, 0)) END ASC, "
-          + "CASE WHEN :isDesc = true THEN SUM(COALESCE(b.unitPrice, 0)) END DESC")
-  Page<Long> findIdsSotedByTotalBurgersPrice(@Param("isDesc") boolean isDesc, Pageable pageable);
+      value =
+          "SELECT created_at AS \"createdAt\", id FROM orders"
+              + " WHERE (created_at, id) > (:createdAt, :id)"
+              + " ORDER BY created_at, id LIMIT :limit",
+      nativeQuery = true)
+  List<KeysetRow> findKeysByCreatedAtAfter(
+      @Param("createdAt") Instant createdAt, @Param("id") long id, @Param("limit") int limit);
 
-  @EntityGraph(attributePaths = {"burgers"})
-  List<Order> findAllByIdIn(List<Long> ids, Sort sort);
+  @Query(
+      value =
+          "SELECT created_at AS \"createdAt\", id FROM orders"
+              + " ORDER BY created_at DESC, id DESC LIMIT :limit",
+      nativeQuery = true)
+  List<KeysetRow> findFirstKeysByCreatedAtDesc(@Param("limit") int limit);
+
+  @Query(
+      value =
+          "SELECT created_at AS \"createdAt\", id FROM orders"
+              + " WHERE (created_at, id) < (:createdAt, :id)"
+              + " ORDER BY created_at DESC, id DESC LIMIT :limit",
+      nativeQuery = true)
+  List<KeysetRow> findKeysByCreatedAtBefore(
+      @Param("createdAt") Instant createdAt, @Param("id") long id, @Param("limit") int limit);
+
+  interface KeysetRow {
+
+    Instant getCreatedAt();
+
+    Long getId();
+  }
 }
@@ -0,0 +1,73 @@
+package com.fransua.burger_order_api.order;
+
+import com.fransua.burger_order_api.burger.BurgerCatalog;
+import com.fransua.burger_order_api.config.TransactionCallbacks;
+import com.fransua.burger_order_api.order.dto.response.OrderResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded read-through cache of {@link OrderResponse} by order ID. Caffeine's W-TinyLFU policy
+ * keeps frequently polled orders over one-off reads, and hits and misses are published as the
+ * {@code cache.*} metrics tagged {@code cache=orders}. A response embeds burger names and prices,
+ * so an entry built against an older catalog version is treated as a miss.
+ */
+@Component
+public class OrderResponseCache {
+
+  private final BurgerCatalog burgerCatalog;
+  private final Cache<Long, VersionedOrder> orders;
+
+  public OrderResponseCache(
+      BurgerCatalog burgerCatalog,
+      MeterRegistry meterRegistry,
+      @Value("${order.cache.max-size}") long maxSize,
+      @Value("${order.cache.ttl}") Duration ttl) {
+    this.burgerCatalog = burgerCatalog;
+    this.orders =
+        Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+    CaffeineCacheMetrics.monitor(meterRegistry, orders, "orders");
+  }
+
+  /**
+   * Returns the cached order unless it was built against another catalog version or is older than
+   * {@code orderVersion}, which is read from the database so writes on other nodes are seen.
+   */
+  public VersionedOrder get(Long id, long orderVersion, Function<Long, OrderResponse> loader) {
+    long catalogVersion = burgerCatalog.current().version();
+
+    // concurrent misses for the same ID wait for a single load
+    VersionedOrder cached =
+        orders.get(id, key -> new VersionedOrder(catalogVersion, loader.apply(key)));
+    if (cached.catalogVersion() != catalogVersion
+        || cached.response().getVersion() < orderVersion) {
+      orders.invalidate(id);
+      cached = orders.get(id, key -> new VersionedOrder(catalogVersion, loader.apply(key)));
+    }
+    return cached;
+  }
+
+  /** Caches a freshly written order once its transaction commits. */
+  public void put(OrderResponse response) {
+    long catalogVersion = burgerCatalog.current().version();
+    TransactionCallbacks.afterCommit(
+        () -> orders.put(response.getId(), new VersionedOrder(catalogVersion, response)));
+  }
+
+  /** Drops the order once the transaction that changed it commits. */
+  public void invalidate(Long id) {
+    TransactionCallbacks.afterCommit(() -> orders.invalidate(id));
+  }
+
+  /** Drops several orders at once when their transaction commits. */
+  public void invalidateAll(Collection<Long> ids) {
+    TransactionCallbacks.afterCommit(() -> orders.invalidateAll(ids));
+  }
+}
@@ -0,0 +1,243 @@
+package com.fransua.burger_order_api.order;
+
+import com.fransua.burger_order_api.order.dto.response.BurgerStatsResponse;
+import com.fransua.burger_order_api.order.dto.response.OrderStatsResponse;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Every write joins the caller's transaction, so the rollup commits or rolls back with the order.
+ * Only quantities are stored; revenue is computed from current prices at read time.
+ */
+@Slf4j
+@Component
+public class OrderSalesRollup {
+
+  private static final String MERGE_COUNT_SQL =
+      " ON CONFLICT (hour) DO UPDATE"
+          + " SET order_count = order_hourly_counts.order_count + EXCLUDED.order_count";
+  private static final String MERGE_SALES_SQL =
+      " ON CONFLICT (hour, burger_id) DO UPDATE"
+          + " SET quantity = order_hourly_sales.quantity + EXCLUDED.quantity";
+  private static final String UPSERT_COUNT_SQL =
+      "INSERT INTO order_hourly_counts (hour, order_count) VALUES (?, ?)" + MERGE_COUNT_SQL;
+  private static final String UPSERT_SALES_SQL =
+      "INSERT INTO order_hourly_sales (hour, burger_id, quantity) VALUES (?, ?, ?)"
+          + MERGE_SALES_SQL;
+  private static final String PRUNE_SALES_SQL =
+      "DELETE FROM order_hourly_sales WHERE hour = ? AND quantity <= 0";
+
+  private static final String SUBTRACT_COUNTS_SQL =
+      "INSERT INTO order_hourly_counts (hour, order_count)"
+          + " SELECT date_trunc('hour', created_at AT TIME ZONE 'UTC') AT TIME ZONE 'UTC',"
+          + " -COUNT(*) FROM orders WHERE id = ANY(?) GROUP BY 1 ORDER BY 1"
+          + MERGE_COUNT_SQL;
+  private static final String SUBTRACT_SALES_SQL =
+      "INSERT INTO order_hourly_sales (hour, burger_id, quantity)"
+          + " SELECT date_trunc('hour', o.created_at AT TIME ZONE 'UTC') AT TIME ZONE 'UTC',"
+          + " ob.burger_id, -SUM(ob.quantity)"
+          + " FROM orders o JOIN order_burgers ob ON ob.order_id = o.id WHERE o.id = ANY(?)"
+          + " GROUP BY 1, 2 ORDER BY 1, 2"
+          + MERGE_SALES_SQL;
+  private static final String HOURS_OF_ORDERS_SQL =
+      " AND hour IN (SELECT date_trunc('hour', created_at AT TIME ZONE 'UTC') AT TIME ZONE 'UTC'"
+          + " FROM orders WHERE id = ANY(?))";
+  private static final String PRUNE_SUBTRACTED_COUNTS_SQL =
+      "DELETE FROM order_hourly_counts WHERE order_count <= 0" + HOURS_OF_ORDERS_SQL;
+  private static final String PRUNE_SUBTRACTED_SALES_SQL =
+      "DELETE FROM order_hourly_sales WHERE quantity <= 0" + HOURS_OF_ORDERS_SQL;
+
+  private static final String LOCK_SQL =
+      "LOCK TABLE order_hourly_counts, order_hourly_sales IN EXCLUSIVE MODE";
+  private static final String CLEAR_COUNTS_SQL = "DELETE FROM order_hourly_counts";
+  private static final String CLEAR_SALES_SQL = "DELETE FROM order_hourly_sales";
+  private static final String REBUILD_COUNTS_SQL =
+      "INSERT INTO order_hourly_counts (hour, order_count)"
+          + " SELECT date_trunc('hour', created_at AT TIME ZONE 'UTC') AT TIME ZONE 'UTC', COUNT(*)"
+          + " FROM orders GROUP BY 1";
+  private static final String REBUILD_SALES_SQL =
+      "INSERT INTO order_hourly_sales (hour, burger_id, quantity)"
+          + " SELECT date_trunc('hour', o.created_at AT TIME ZONE 'UTC') AT TIME ZONE 'UTC',"
+          + " ob.burger_id, SUM(ob.quantity)"
+          + " FROM orders o JOIN order_burgers ob ON ob.order_id = o.id GROUP BY 1, 2";
+
+  private static final String BUCKET_SQL = "date_trunc('%s', hour AT TIME ZONE 'UTC')";
+  private static final String SELECT_COUNTS_SQL =
+      "SELECT %1$s AS bucket_start, SUM(order_count) AS order_count FROM order_hourly_counts"
+          + " WHERE TRUE%2$s GROUP BY 1";
+  private static final String SELECT_SALES_SQL =
+      "SELECT %1$s AS bucket_start, s.burger_id, b.name AS burger_name,"
+          + " SUM(s.quantity) AS quantity, SUM(s.quantity * b.unit_price) AS revenue,"
+          + " GROUPING(s.burger_id, b.name) AS is_total"
+          + " FROM order_hourly_sales s JOIN burgers b ON b.id = s.burger_id"
+          + " WHERE TRUE%2$s"
+          + " GROUP BY GROUPING SETS ((%1$s), (%1$s, s.burger_id, b.name))"
+          + " ORDER BY bucket_start, is_total DESC, revenue DESC, s.burger_id";
+  private static final String HOUR_FROM_SQL = " AND hour >= ?";
+  private static final String HOUR_TO_SQL = " AND hour <= ?";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public OrderSalesRollup(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  public void recordCreated(Instant createdAt, List<OrderLine> orderLines) {
+    recordCreated(createdAt, List.of(orderLines));
+  }
+
+  public void recordCreated(Instant createdAt, Collection<List<OrderLine>> orders) {
+    Map<Long, Long> quantities = new TreeMap<>();
+    for (List<OrderLine> orderLines : orders) {
+      addLines(quantities, orderLines, 1);
+    }
+    apply(createdAt, orders.size(), quantities);
+  }
+
+  public void recordUpdated(
+      Instant createdAt, List<OrderLine> previousLines, List<OrderLine> currentLines) {
+    Map<Long, Long> quantities = new TreeMap<>();
+    addLines(quantities, previousLines, -1);
+    addLines(quantities, currentLines, 1);
+    apply(createdAt, 0, quantities);
+  }
+
+  /**
+   * Subtracts the given orders with set-based statements. It reads them from {@code orders}, so it
+   * must run in the deleting transaction before the rows are gone.
+   */
+  public void recordDeleted(List<Long> orderIds) {
+    Long[] ids = orderIds.toArray(Long[]::new);
+    jdbcTemplate.update(SUBTRACT_COUNTS_SQL, (Object) ids);
+    jdbcTemplate.update(SUBTRACT_SALES_SQL, (Object) ids);
+    jdbcTemplate.update(PRUNE_SUBTRACTED_COUNTS_SQL, (Object) ids);
+    jdbcTemplate.update(PRUNE_SUBTRACTED_SALES_SQL, (Object) ids);
+  }
+
+  /**
+   * Recomputes both tables from {@code orders}. The exclusive lock makes concurrent order writes
+   * wait, so none of their deltas is lost or counted twice.
+   */
+  @Transactional
+  @Scheduled(cron = "${order.stats.rollup-rebuild-cron}")
+  public void rebuild() {
+    jdbcTemplate.execute(LOCK_SQL);
+    jdbcTemplate.update(CLEAR_SALES_SQL);
+    jdbcTemplate.update(CLEAR_COUNTS_SQL);
+
+    int hours = jdbcTemplate.update(REBUILD_COUNTS_SQL);
+    int rows = jdbcTemplate.update(REBUILD_SALES_SQL);
+    log.info("Rebuilt order sales rollup: {} hours, {} burger rows.", hours, rows);
+  }
+
+  /** The range is widened to whole UTC hours. */
+  public List<OrderStatsResponse> aggregate(Instant from, Instant to, StatsBucket bucket) {
+    String bucketSql = BUCKET_SQL.formatted(bucket.getToken());
+    StringBuilder rangeSql = new StringBuilder();
+    List<Object> params = new ArrayList<>(2);
+
+    if (from != null) {
+      rangeSql.append(HOUR_FROM_SQL);
+      params.add(toHour(from));
+    }
+    if (to != null) {
+      rangeSql.append(HOUR_TO_SQL);
+      params.add(toHour(to));
+    }
+
+    Map<Instant, OrderStatsResponse> buckets = new LinkedHashMap<>();
+    jdbcTemplate.query(
+        SELECT_SALES_SQL.formatted(bucketSql, rangeSql),
+        rs -> {
+          OrderStatsResponse stats =
+              buckets.computeIfAbsent(
+                  toBucketStart(rs.getObject("bucket_start", LocalDateTime.class)),
+                  start -> {
+                    OrderStatsResponse response = new OrderStatsResponse();
+                    response.setBucketStart(start);
+                    return response;
+                  });
+
+          if (rs.getInt("is_total") != 0) {
+            stats.setQuantity(rs.getLong("quantity"));
+            stats.setRevenue(rs.getBigDecimal("revenue"));
+            return;
+          }
+
+          BurgerStatsResponse burgerStats = new BurgerStatsResponse();
+          burgerStats.setBurgerId(rs.getLong("burger_id"));
+          burgerStats.setBurgerName(rs.getString("burger_name"));
+          burgerStats.setQuantity(rs.getLong("quantity"));
+          burgerStats.setRevenue(rs.getBigDecimal("revenue"));
+          stats.getBurgers().add(burgerStats);
+        },
+        params.toArray());
+
+    jdbcTemplate.query(
+        SELECT_COUNTS_SQL.formatted(bucketSql, rangeSql),
+        rs -> {
+          OrderStatsResponse stats =
+              buckets.get(toBucketStart(rs.getObject("bucket_start", LocalDateTime.class)));
+          if (stats != null) {
+            stats.setOrderCount(rs.getLong("order_count"));
+          }
+        },
+        params.toArray());
+
+    return new ArrayList<>(buckets.values());
+  }
+
+  private void apply(Instant createdAt, long orderDelta, Map<Long, Long> quantities) {
+    OffsetDateTime hour = toHour(createdAt);
+
+    if (orderDelta != 0) {
+      jdbcTemplate.update(UPSERT_COUNT_SQL, hour, orderDelta);
+    }
+
+    // rows are upserted in burger ID order so concurrent writers lock them in the same order
+    List<Object[]> sales = new ArrayList<>(quantities.size());
+    boolean removesLines = false;
+    for (Map.Entry<Long, Long> quantity : quantities.entrySet()) {
+      if (quantity.getValue() == 0) {
+        continue;
+      }
+      sales.add(new Object[] {hour, quantity.getKey(), quantity.getValue()});
+      removesLines |= quantity.getValue() < 0;
+    }
+    if (!sales.isEmpty()) {
+      jdbcTemplate.batchUpdate(UPSERT_SALES_SQL, sales);
+    }
+
+    if (removesLines) {
+      jdbcTemplate.update(PRUNE_SALES_SQL, hour);
+    }
+  }
+
+  private static void addLines(Map<Long, Long> quantities, List<OrderLine> orderLines, int sign) {
+    for (OrderLine line : orderLines) {
+      quantities.merge(line.getBurger().getId(), (long) sign * line.getQuantity(), Long::sum);
+    }
+  }
+
+  private static OffsetDateTime toHour(Instant instant) {
+    return OffsetDateTime.ofInstant(instant.truncatedTo(ChronoUnit.HOURS), ZoneOffset.UTC);
+  }
+
+  private static Instant toBucketStart(LocalDateTime bucketStart) {
+    return bucketStart.toInstant(ZoneOffset.UTC);
+  }
+}
@@ -2,39 +2,52 @@ package com.fransua.burger_order_api.order;
 
 import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectReader;
-import com.fasterxml.jackson.databind.SequenceWriter;
-import com.fasterxml.jackson.dataformat.csv.CsvMapper;
-import com.fasterxml.jackson.dataformat.csv.CsvSchema;
 import com.fransua.burger_order_api.burger.Burger;
-import com.fransua.burger_order_api.burger.BurgerRepository;
-import com.fransua.burger_order_api.email.RabbitMQConfig;
+import com.fransua.burger_order_api.burger.BurgerCatalog;
+import com.fransua.burger_order_api.email.NotificationOutbox;
+import com.fransua.burger_order_api.exception.InvalidRequestException;
 import com.fransua.burger_order_api.exception.NotFoundResourceException;
+import com.fransua.burger_order_api.exception.StaleResourceException;
 import com.fransua.burger_order_api.exception.TechnicalFailureException;
 import com.fransua.burger_order_api.order.dto.request.FilterCriteriaRequest;
+import com.fransua.burger_order_api.order.dto.request.OrderBulkDeleteRequest;
 import com.fransua.burger_order_api.order.dto.request.OrderCreatedEmailNotificationRequest;
+import com.fransua.burger_order_api.order.dto.request.OrderPatchRequest;
 import com.fransua.burger_order_api.order.dto.request.OrderRequest;
+import com.fransua.burger_order_api.order.dto.response.OrderBulkDeleteResponse;
+import com.fransua.burger_order_api.order.dto.response.OrderCursorPageResponse;
 import com.fransua.burger_order_api.order.dto.response.OrderResponse;
-import com.fransua.burger_order_api.order.dto.response.OrderResponseCsv;
+import com.fransua.burger_order_api.order.dto.response.OrderStatsResponse;
 import com.fransua.burger_order_api.order.dto.response.UploadStatsResponse;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StreamUtils;
 
 @Slf4j
 @Service
@@ -42,34 +55,115 @@ public class OrderService {
 
   private final ObjectReader orderReader;
   private final OrderRepository orderRepository;
-  private final BurgerRepository burgerRepository;
+  private final BurgerCatalog burgerCatalog;
   private final OrderMapper orderMapper;
-  private final RabbitTemplate rabbitTemplate;
+  private final NotificationOutbox notificationOutbox;
+  private final OrderBulkImporter orderBulkImporter;
+  private final OrderReportQuery orderReportQuery;
+  private final OrderStatsQuery orderStatsQuery;
+  private final OrderSalesRollup orderSalesRollup;
+  private final OrderCountEstimator orderCountEstimator;
+  private final ParallelReportExporter parallelReportExporter;
+  private final OrderIdempotencyStore orderIdempotencyStore;
+  private final ReportCache reportCache;
+  private final OrderResponseCache orderResponseCache;
+  private final OrderMultiGetWriter orderMultiGetWriter;
+  private final OrderPurger orderPurger;
+  private final TransactionTemplate transactionTemplate;
   private final String orderReportEmailRecipient;
+  private final int reportBufferSize;
+  private final int reportZstdLevel;
 
   public OrderService(
       @Qualifier("orderReader") ObjectReader orderReader,
       OrderRepository orderRepository,
-      BurgerRepository burgerRepository,
+      BurgerCatalog burgerCatalog,
       OrderMapper orderMapper,
-      RabbitTemplate rabbitTemplate,
-      @Value("${ORDER_REPORT_EMAIL_RECIPIENT}") String orderReportEmailRecipient) {
+      NotificationOutbox notificationOutbox,
+      OrderBulkImporter orderBulkImporter,
+      OrderReportQuery orderReportQuery,
+      OrderStatsQuery orderStatsQuery,
+      OrderSalesRollup orderSalesRollup,
+      OrderCountEstimator orderCountEstimator,
+      ParallelReportExporter parallelReportExporter,
+      OrderIdempotencyStore orderIdempotencyStore,
+      ReportCache reportCache,
+      OrderResponseCache orderResponseCache,
+      OrderMultiGetWriter orderMultiGetWriter,
+      OrderPurger orderPurger,
+      TransactionTemplate transactionTemplate,
+      @Value("${ORDER_REPORT_EMAIL_RECIPIENT}") String orderReportEmailRecipient,
+      @Value("${order.report.compression-buffer-size}") int reportBufferSize,
+      @Value("${order.report.zstd-level}") int reportZstdLevel) {
     this.orderReader = orderReader;
     this.orderRepository = orderRepository;
-    this.burgerRepository = burgerRepository;
+    this.burgerCatalog = burgerCatalog;
     this.orderMapper = orderMapper;
-    this.rabbitTemplate = rabbitTemplate;
+    this.notificationOutbox = notificationOutbox;
+    this.orderBulkImporter = orderBulkImporter;
+    this.orderReportQuery = orderReportQuery;
+    this.orderStatsQuery = orderStatsQuery;
+    this.orderSalesRollup = orderSalesRollup;
+    this.orderCountEstimator = orderCountEstimator;
+    this.parallelReportExporter = parallelReportExporter;
+    this.orderIdempotencyStore = orderIdempotencyStore;
+    this.reportCache = reportCache;
+    this.orderResponseCache = orderResponseCache;
+    this.orderMultiGetWriter = orderMultiGetWriter;
+    this.orderPurger = orderPurger;
+    this.transactionTemplate = transactionTemplate;
     this.orderReportEmailRecipient = orderReportEmailRecipient;
+    this.reportBufferSize = reportBufferSize;
+    this.reportZstdLevel = reportZstdLevel;
   }
 
-  public OrderResponse createOrder(OrderRequest orderRequest) {
-    List<Burger> foundBurgers = findAndValidateBurgers(orderRequest.getBurgerIds());
+  public OrderResponse createOrder(OrderRequest orderRequest, String idempotencyKey) {
+    if (idempotencyKey == null || idempotencyKey.isBlank()) {
+      return transactionTemplate.execute(status -> insertOrder(orderRequest));
+    }
+
+    orderIdempotencyStore.checkKey(idempotencyKey);
+    String requestHash = orderIdempotencyStore.requestHash(orderRequest);
+    Optional<OrderResponse> storedResponse =
+        orderIdempotencyStore.find(idempotencyKey, requestHash);
+    if (storedResponse.isPresent()) {
+      return storedResponse.get();
+    }
+
+    OrderResponse createdOrder =
+        transactionTemplate.execute(
+            status -> {
+              OrderResponse response = insertOrder(orderRequest);
+              if (orderIdempotencyStore.save(idempotencyKey, requestHash, response)) {
+                return response;
+              }
+              // a concurrent retry with the same key won, drop this order and replay its response
+              status.setRollbackOnly();
+              return null;
+            });
+
+    if (createdOrder != null) {
+      return createdOrder;
+    }
+    return orderIdempotencyStore
+        .find(idempotencyKey, requestHash)
+        .orElseThrow(
+            () ->
+                new TechnicalFailureException(
+                    "Order for idempotency key '" + idempotencyKey + "' is not available."));
+  }
 
-    Order order = orderMapper.toOrder(orderRequest);
-    order.setBurgers(foundBurgers);
+  private OrderResponse insertOrder(OrderRequest orderRequest) {
+    Map<Long, Integer> quantities = countBurgerIds(orderRequest.getBurgerIds());
+    List<Burger> foundBurgers = findAndValidateBurgers(List.copyOf(quantities.keySet()));
+
+    Order order = new Order();
+    order.updateLines(foundBurgers, quantities);
+    order.setTotalPrice(Order.totalPriceOf(order.getLines()));
     order.setCreatedAt(Instant.now());
 
-    Order savedOrder = orderRepository.save(order);
+    Order savedOrder = flushValidatedOrder(() -> orderRepository.saveAndFlush(order));
+    orderSalesRollup.recordCreated(savedOrder.getCreatedAt(), savedOrder.getLines());
 
     OrderCreatedEmailNotificationRequest request =
         new OrderCreatedEmailNotificationRequest(
@@ -77,59 +171,198 @@ public class OrderService {
             "New Order #" + savedOrder.getId(),
             "Order details: " + savedOrder.toString());
 
-    rabbitTemplate.convertAndSend(RabbitMQConfig.EMAIL_QUEUE_NAME, request);
+    notificationOutbox.enqueue(request);
+
+    OrderResponse response = orderMapper.toResponse(savedOrder);
+    orderResponseCache.put(response);
+    return response;
+  }
 
-    return orderMapper.toResponse(savedOrder);
+  /** Repeated IDs become the quantity of one line; validation then runs over distinct IDs. */
+  private static Map<Long, Integer> countBurgerIds(List<Long> requestBurgerIds) {
+    if (requestBurgerIds.contains(null)) {
+      throw new NotFoundResourceException(
+          "One or more burger IDs are invalid or not found in database.");
+    }
+    return OrderLine.countBurgerIds(requestBurgerIds);
   }
 
   private List<Burger> findAndValidateBurgers(List<Long> requestBurgerIds) {
-    List<Burger> foundBurgers = burgerRepository.findAllByIdIn(requestBurgerIds);
+    return burgerCatalog
+        .resolve(requestBurgerIds)
+        .orElseThrow(
+            () ->
+                new NotFoundResourceException(
+                    "One or more burger IDs are invalid or not found in database."));
+  }
 
-    if (foundBurgers.size() != requestBurgerIds.size()) {
+  private Order flushValidatedOrder(Supplier<Order> write) {
+    try {
+      return write.get();
+    } catch (DataIntegrityViolationException e) {
+      // the catalog still knew a burger that has been deleted in the meantime
+      burgerCatalog.reload();
       throw new NotFoundResourceException(
           "One or more burger IDs are invalid or not found in database.");
+    } catch (OptimisticLockingFailureException e) {
+      // another request updated the order after it was read here
+      throw new StaleResourceException("Order was changed concurrently, reload it and retry.");
     }
+  }
+
+  /** Reads only the order's version, so a conditional GET needs no entity loading. */
+  public long findOrderVersion(Long id) {
+    return orderRepository
+        .findVersionById(id)
+        .orElseThrow(
+            () -> new NotFoundResourceException("Order with ID '" + id + "' is not found."));
+  }
+
+  public String findOrderETag(long orderVersion) {
+    return VersionedOrder.eTag(orderVersion, burgerCatalog.current().version());
+  }
 
-    return foundBurgers;
+  public VersionedOrder findOrder(Long id, long orderVersion) {
+    return orderResponseCache.get(
+        id,
+        orderVersion,
+        orderId -> {
+          Order foundOrder =
+              orderRepository
+                  .findById(orderId)
+                  .orElseThrow(
+                      () ->
+                          new NotFoundResourceException(
+                              "Order with ID '" + orderId + "' is not found."));
+          return orderMapper.toResponse(foundOrder);
+        });
+  }
+
+  /** Rejects oversized ID lists before {@link #findOrders} starts writing the response. */
+  public void checkOrderIds(List<Long> ids) {
+    orderMultiGetWriter.checkSize(ids);
+  }
+
+  public void findOrders(List<Long> ids, OutputStream outputStream) {
+    try {
+      orderMultiGetWriter.write(ids, outputStream);
+    } catch (IOException e) {
+      throw new TechnicalFailureException("Order streaming failed after start.", e);
+    }
   }
 
-  public OrderResponse findOrder(Long id) {
+  @Transactional
+  public OrderResponse updateOrder(Long id, OrderRequest orderRequest) {
+    Map<Long, Integer> quantities = countBurgerIds(orderRequest.getBurgerIds());
+    List<Burger> foundBurgers = findAndValidateBurgers(List.copyOf(quantities.keySet()));
+
     Order foundOrder =
         orderRepository
             .findById(id)
             .orElseThrow(
                 () -> new NotFoundResourceException("Order with ID '" + id + "' is not found."));
-    return orderMapper.toResponse(foundOrder);
+    return updateLines(foundOrder, foundBurgers, quantities);
   }
 
+  /**
+   * Adds and removes single units of burgers. Only the lines whose quantity changes are written,
+   * and a stale {@code version} or a concurrent update fails with a conflict instead of waiting on
+   * a row lock.
+   */
   @Transactional
-  public OrderResponse updateOrder(Long id, OrderRequest orderRequest) {
-    List<Burger> foundBurgers = findAndValidateBurgers(orderRequest.getBurgerIds());
-
+  public OrderResponse patchOrder(Long id, OrderPatchRequest patchRequest) {
     Order foundOrder =
         orderRepository
             .findById(id)
             .orElseThrow(
                 () -> new NotFoundResourceException("Order with ID '" + id + "' is not found."));
-    foundOrder.setBurgers(foundBurgers);
+    if (patchRequest.getVersion() != null
+        && !patchRequest.getVersion().equals(foundOrder.getVersion())) {
+      throw new StaleResourceException(
+          "Order with ID '" + id + "' changed after version " + patchRequest.getVersion() + ".");
+    }
+
+    Map<Long, Integer> quantities = new TreeMap<>();
+    for (OrderLine line : foundOrder.getLines()) {
+      quantities.put(line.getBurger().getId(), line.getQuantity());
+    }
+
+    if (patchRequest.getAdd() != null) {
+      Map<Long, Integer> additions = countBurgerIds(patchRequest.getAdd());
+      for (Map.Entry<Long, Integer> added : additions.entrySet()) {
+        quantities.merge(added.getKey(), added.getValue(), Integer::sum);
+      }
+    }
+    if (patchRequest.getRemove() != null) {
+      Map<Long, Integer> removals = countBurgerIds(patchRequest.getRemove());
+      for (Map.Entry<Long, Integer> removed : removals.entrySet()) {
+        Long burgerId = removed.getKey();
+        int remaining = quantities.getOrDefault(burgerId, 0) - removed.getValue();
+        if (remaining < 0) {
+          throw new InvalidRequestException(
+              "Order with ID '" + id + "' has fewer burgers with ID '" + burgerId + "' to remove.");
+        }
+        if (remaining == 0) {
+          quantities.remove(burgerId);
+        } else {
+          quantities.put(burgerId, remaining);
+        }
+      }
+    }
+    if (quantities.isEmpty()) {
+      throw new InvalidRequestException("Order must contain at least one burger.");
+    }
+
+    List<Burger> foundBurgers = findAndValidateBurgers(List.copyOf(quantities.keySet()));
+    return updateLines(foundOrder, foundBurgers, quantities);
+  }
+
+  private OrderResponse updateLines(
+      Order foundOrder, List<Burger> foundBurgers, Map<Long, Integer> quantities) {
+    List<OrderLine> previousLines = foundOrder.getLines().stream().map(OrderLine::copy).toList();
+    foundOrder.updateLines(foundBurgers, quantities);
+    foundOrder.setTotalPrice(Order.totalPriceOf(foundOrder.getLines()));
+    flushValidatedOrder(
+        () -> {
+          orderRepository.flush();
+          return foundOrder;
+        });
+    orderSalesRollup.recordUpdated(
+        foundOrder.getCreatedAt(), previousLines, foundOrder.getLines());
+    reportCache.invalidate(foundOrder.getCreatedAt());
+    orderResponseCache.invalidate(foundOrder.getId());
 
     return orderMapper.toResponse(foundOrder);
   }
 
   public void deleteOrder(Long id) {
-    Order orderToDelete =
-        orderRepository
-            .findById(id)
-            .orElseThrow(
-                () -> new NotFoundResourceException("Order with ID '" + id + "' is not found."));
-    orderRepository.delete(orderToDelete);
+    if (orderPurger.deleteByIds(List.of(id)) == 0) {
+      throw new NotFoundResourceException("Order with ID '" + id + "' is not found.");
+    }
   }
 
-  public Page<OrderResponse> getPaginatedOrders(Pageable pageable) {
-    boolean isSortingByTotalPrice =
-        pageable.getSort().stream().anyMatch(order -> "totalPrice".equals(order.getProperty()));
+  /** Runs in batches of its own transactions, so a failure keeps the batches already deleted. */
+  public OrderBulkDeleteResponse deleteOrders(OrderBulkDeleteRequest request) {
+    if ((request.getIds() == null) == (request.getOrderCreatedBefore() == null)) {
+      throw new InvalidRequestException("Either order IDs or a creation cutoff must be given.");
+    }
+
+    int deleted;
+    if (request.getIds() != null) {
+      orderPurger.checkSize(request.getIds());
+      deleted = orderPurger.deleteByIds(request.getIds());
+    } else {
+      orderPurger.checkCutoff(request.getOrderCreatedBefore());
+      deleted = orderPurger.deleteCreatedBefore(request.getOrderCreatedBefore());
+    }
+
+    OrderBulkDeleteResponse response = new OrderBulkDeleteResponse();
+    response.setDeletedCount(deleted);
+    return response;
+  }
 
-    if (isSortingByTotalPrice) {
+  public Page<OrderResponse> getPaginatedOrders(Pageable pageable) {
+    if (isSortingByTotalPrice(pageable)) {
       return getPaginatedOrdersByTotalPrice(pageable);
     }
 
@@ -139,12 +372,7 @@ public class OrderService {
   }
 
   private Page<OrderResponse> getPaginatedOrdersByTotalPrice(Pageable pageable) {
-    boolean isDesc =
-        pageable.getSort().stream().map(Sort.Order::isDescending).findFirst().orElse(false);
-
-    Pageable cleanPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
-
-    Page<Long> idsPage = orderRepository.findIdsSotedByTotalBurgersPrice(isDesc, cleanPageable);
+    Page<Long> idsPage = orderRepository.findIds(byTotalPrice(pageable));
 
     if (idsPage.isEmpty()) {
       return Page.empty(pageable);
@@ -153,83 +381,172 @@ public class OrderService {
     List<Order> fullOrders = orderRepository.findAllByIdIn(idsPage.getContent(), Sort.unsorted());
 
     List<OrderResponse> sortedFullOrders =
-        idsPage.getContent().stream()
-            .map(
-                id ->
-                    fullOrders.stream()
-                        .filter(order -> order.getId().equals(id))
-                        .findFirst()
-                        .orElseThrow())
-            .map(orderMapper::toResponse)
-            .toList();
+        orderMapper.toResponseList(sortByIds(idsPage.getContent(), fullOrders));
 
     return new PageImpl<>(sortedFullOrders, pageable, idsPage.getTotalElements());
   }
 
-  @Transactional(readOnly = true)
-  public void generateReport(FilterCriteriaRequest filter, OutputStream outputStream) {
-    CsvMapper mapper = new CsvMapper();
+  /** Same as {@link #getPaginatedOrders(Pageable)} without the {@code COUNT(*)} query. */
+  public Slice<OrderResponse> getOrderSlice(Pageable pageable) {
+    if (isSortingByTotalPrice(pageable)) {
+      Slice<Long> idSlice = orderRepository.findIdSlice(byTotalPrice(pageable));
+      List<Order> fullOrders =
+          idSlice.isEmpty()
+              ? List.of()
+              : orderRepository.findAllByIdIn(idSlice.getContent(), Sort.unsorted());
+
+      List<OrderResponse> sortedFullOrders =
+          orderMapper.toResponseList(sortByIds(idSlice.getContent(), fullOrders));
+      return new SliceImpl<>(sortedFullOrders, pageable, idSlice.hasNext());
+    }
 
-    mapper.findAndRegisterModules();
+    Slice<Order> orderSlice = orderRepository.findSliceBy(pageable);
+    List<OrderResponse> responseContent = orderMapper.toResponseList(orderSlice.getContent());
+    return new SliceImpl<>(responseContent, orderSlice.getPageable(), orderSlice.hasNext());
+  }
 
-    CsvSchema schema = mapper.schemaFor(OrderResponseCsv.class).withHeader();
+  public long estimateOrderCount() {
+    return orderCountEstimator.estimate();
+  }
 
-    try (Stream<Order> orderStream =
-            orderRepository.findOrdersByFilter(
-                filter.getOrderCreatedAtFrom(),
-                filter.getOrderCreatedAtTo(),
-                filter.getBurgerName());
-        SequenceWriter writer = mapper.writer(schema).writeValues(outputStream)) {
+  private static boolean isSortingByTotalPrice(Pageable pageable) {
+    return pageable.getSort().stream().anyMatch(order -> "totalPrice".equals(order.getProperty()));
+  }
 
-      orderStream.forEach(
-          order -> {
-            try {
-              String burgers =
-                  order.getBurgers().stream()
-                      .map(Burger::toString)
-                      .collect(Collectors.joining("; "));
+  private static Pageable byTotalPrice(Pageable pageable) {
+    Sort.Direction direction =
+        pageable.getSort().stream()
+            .map(Sort.Order::getDirection)
+            .findFirst()
+            .orElse(Sort.Direction.ASC);
 
-              OrderResponseCsv csvResponse = new OrderResponseCsv();
+    // the ID tie-breaker keeps pages stable and matches the (total_price, id) index
+    return PageRequest.of(
+        pageable.getPageNumber(), pageable.getPageSize(), direction, "totalPrice", "id");
+  }
 
-              csvResponse.setId(order.getId());
-              csvResponse.setCreatedAt(order.getCreatedAt());
-              csvResponse.setBurgers(burgers);
+  /**
+   * Seeks past {@code cursor} on the {@code (created_at, id)} index instead of skipping rows with
+   * {@code OFFSET}, and skips the total count. An empty cursor starts from the first order.
+   */
+  public OrderCursorPageResponse getOrdersAfter(String cursor, int size, boolean descending) {
+    // one extra key tells whether another page follows
+    int limit = size + 1;
+    List<OrderRepository.KeysetRow> keys;
+    if (cursor == null || cursor.isBlank()) {
+      keys =
+          descending
+              ? orderRepository.findFirstKeysByCreatedAtDesc(limit)
+              : orderRepository.findFirstKeysByCreatedAt(limit);
+    } else {
+      OrderCursor position = OrderCursor.decode(cursor);
+      keys =
+          descending
+              ? orderRepository.findKeysByCreatedAtBefore(
+                  position.createdAt(), position.id(), limit)
+              : orderRepository.findKeysByCreatedAtAfter(
+                  position.createdAt(), position.id(), limit);
+    }
 
-              writer.write(csvResponse);
-            } catch (IOException e) {
-              throw new UncheckedIOException(e);
-            }
-          });
+    boolean hasNext = keys.size() > size;
+    List<OrderRepository.KeysetRow> pageKeys = hasNext ? keys.subList(0, size) : keys;
+    List<Long> pageIds = pageKeys.stream().map(OrderRepository.KeysetRow::getId).toList();
 
-      outputStream.flush();
+    List<Order> orders =
+        pageIds.isEmpty()
+            ? List.of()
+            : sortByIds(pageIds, orderRepository.findAllByIdIn(pageIds, Sort.unsorted()));
 
+    OrderCursorPageResponse response = new OrderCursorPageResponse();
+    response.setContent(orderMapper.toResponseList(orders));
+    if (hasNext) {
+      response.setNextCursor(OrderCursor.of(pageKeys.get(pageKeys.size() - 1)).encode());
+    }
+    return response;
+  }
+
+  static List<Order> sortByIds(List<Long> ids, List<Order> orders) {
+    Map<Long, Order> ordersById = new HashMap<>(orders.size() * 2);
+    for (Order order : orders) {
+      ordersById.put(order.getId(), order);
+    }
+
+    // an order deleted between the two queries is simply left out of the page
+    return ids.stream().map(ordersById::get).filter(Objects::nonNull).toList();
+  }
+
+  @Transactional(readOnly = true)
+  public void generateReport(
+      FilterCriteriaRequest filter, ReportEncoding encoding, OutputStream outputStream) {
+    writeEncodedReport(
+        encoding,
+        outputStream,
+        encodedStream -> {
+          try (OrderReportWriter reportWriter = OrderReportWriter.open(encodedStream)) {
+            orderReportQuery.streamRows(filter, reportWriter);
+            reportWriter.finish();
+          }
+        });
+  }
+
+  public void generateReportInParallel(
+      FilterCriteriaRequest filter, ReportEncoding encoding, OutputStream outputStream) {
+    writeEncodedReport(
+        encoding,
+        outputStream,
+        encodedStream -> parallelReportExporter.export(filter, encodedStream));
+  }
+
+  /**
+   * Reads from the hourly rollup when asked to and the filter has no burger name, which the rollup
+   * cannot answer; otherwise aggregates the order lines directly.
+   */
+  @Transactional(readOnly = true)
+  public List<OrderStatsResponse> getOrderStats(
+      FilterCriteriaRequest filter, StatsBucket bucket, boolean fromRollup) {
+    if (fromRollup && filter.getBurgerName() == null) {
+      return orderSalesRollup.aggregate(
+          filter.getOrderCreatedAtFrom(), filter.getOrderCreatedAtTo(), bucket);
+    }
+    return orderStatsQuery.aggregate(filter, bucket);
+  }
+
+  private void writeEncodedReport(
+      ReportEncoding encoding, OutputStream outputStream, ReportBody reportBody) {
+    try (OutputStream encodedStream =
+        encoding.wrap(StreamUtils.nonClosing(outputStream), reportBufferSize, reportZstdLevel)) {
+      reportBody.writeTo(encodedStream);
     } catch (UncheckedIOException e) {
       throw new TechnicalFailureException("Report streaming failed after start.", e);
     } catch (IOException e) {
       throw new TechnicalFailureException("Failed to initialize report resources.", e);
     }
+
+    try {
+      outputStream.flush();
+    } catch (IOException e) {
+      throw new TechnicalFailureException("Report streaming failed after start.", e);
+    }
   }
 
-  @Transactional
   public UploadStatsResponse uploadOrders(InputStream inputStream) {
     UploadStatsResponse stats = new UploadStatsResponse();
+    uploadOrders(inputStream, stats, () -> false);
+    return stats;
+  }
 
+  public void uploadOrders(
+      InputStream inputStream, UploadStatsResponse stats, BooleanSupplier cancellationRequested) {
     try (MappingIterator<OrderRequest> iterator = orderReader.readValues(inputStream)) {
-      while (iterator.hasNext()) {
-        try {
-          OrderRequest orderToImport = iterator.next();
-          createOrder(orderToImport);
-          stats.incrementSuccessfulCount();
-
-        } catch (RuntimeException e) {
-          stats.incrementFailedCount();
-          log.error("Parsing failed at record: {}", iterator.getCurrentLocation(), e);
-        }
-      }
+      orderBulkImporter.importOrders(iterator, stats, cancellationRequested);
     } catch (Exception e) {
       throw new TechnicalFailureException("Failed to import orders.", e);
     }
+  }
 
-    return stats;
+  @FunctionalInterface
+  private interface ReportBody {
+
+    void writeTo(OutputStream outputStream) throws IOException;
   }
 }
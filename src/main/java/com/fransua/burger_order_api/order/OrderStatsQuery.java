@@ -0,0 +1,107 @@
+package com.fransua.burger_order_api.order;
+
+import com.fransua.burger_order_api.order.dto.request.FilterCriteriaRequest;
+import com.fransua.burger_order_api.order.dto.response.BurgerStatsResponse;
+import com.fransua.burger_order_api.order.dto.response.OrderStatsResponse;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aggregates order lines per time bucket and per burger inside PostgreSQL. One {@code GROUPING
+ * SETS} query returns a total row for every bucket followed by its per-burger rows, so the result
+ * size depends on the number of buckets and burgers, not on the number of matching orders.
+ */
+@Component
+public class OrderStatsQuery {
+
+  private static final String BUCKET_SQL = "date_trunc('%s', o.created_at AT TIME ZONE 'UTC')";
+  private static final String SELECT_SQL =
+      "SELECT %1$s AS bucket_start, b.id AS burger_id, b.name AS burger_name,"
+          + " COUNT(DISTINCT o.id) AS order_count, SUM(ob.quantity) AS quantity,"
+          + " SUM(b.unit_price * ob.quantity) AS revenue, GROUPING(b.id, b.name) AS is_total"
+          + " FROM orders o JOIN order_burgers ob ON ob.order_id = o.id"
+          + " JOIN burgers b ON b.id = ob.burger_id WHERE TRUE";
+  private static final String CREATED_AT_FROM_SQL = " AND o.created_at >= ?";
+  private static final String CREATED_AT_TO_SQL = " AND o.created_at <= ?";
+  private static final String BURGER_NAME_SQL =
+      " AND EXISTS (SELECT 1 FROM order_burgers fob JOIN burgers fb ON fb.id = fob.burger_id"
+          + " WHERE fob.order_id = o.id AND fb.name ILIKE ?)";
+  private static final String GROUP_BY_SQL =
+      " GROUP BY GROUPING SETS ((%1$s), (%1$s, b.id, b.name))"
+          + " ORDER BY bucket_start, is_total DESC, revenue DESC, burger_id";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public OrderStatsQuery(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  public List<OrderStatsResponse> aggregate(FilterCriteriaRequest filter, StatsBucket bucket) {
+    BoundSql query = aggregateSql(filter, bucket);
+
+    Map<Instant, OrderStatsResponse> buckets = new LinkedHashMap<>();
+    jdbcTemplate.query(
+        query.sql(),
+        rs -> {
+          Instant bucketStart =
+              rs.getObject("bucket_start", LocalDateTime.class).toInstant(ZoneOffset.UTC);
+          OrderStatsResponse stats =
+              buckets.computeIfAbsent(
+                  bucketStart,
+                  start -> {
+                    OrderStatsResponse response = new OrderStatsResponse();
+                    response.setBucketStart(start);
+                    return response;
+                  });
+
+          if (rs.getInt("is_total") != 0) {
+            stats.setOrderCount(rs.getLong("order_count"));
+            stats.setQuantity(rs.getLong("quantity"));
+            stats.setRevenue(rs.getBigDecimal("revenue"));
+            return;
+          }
+
+          BurgerStatsResponse burgerStats = new BurgerStatsResponse();
+          burgerStats.setBurgerId(rs.getLong("burger_id"));
+          burgerStats.setBurgerName(rs.getString("burger_name"));
+          burgerStats.setQuantity(rs.getLong("quantity"));
+          burgerStats.setRevenue(rs.getBigDecimal("revenue"));
+          stats.getBurgers().add(burgerStats);
+        },
+        query.params().toArray());
+
+    return new ArrayList<>(buckets.values());
+  }
+
+  public static BoundSql aggregateSql(FilterCriteriaRequest filter, StatsBucket bucket) {
+    // the bucket comes from a closed enum, so it is safe to inline and keeps both
+    // occurrences of the expression identical for GROUP BY
+    String bucketSql = BUCKET_SQL.formatted(bucket.getToken());
+    StringBuilder sql = new StringBuilder(SELECT_SQL.formatted(bucketSql));
+    List<Object> params = new ArrayList<>(3);
+
+    if (filter.getOrderCreatedAtFrom() != null) {
+      sql.append(CREATED_AT_FROM_SQL);
+      params.add(OffsetDateTime.ofInstant(filter.getOrderCreatedAtFrom(), ZoneOffset.UTC));
+    }
+    if (filter.getOrderCreatedAtTo() != null) {
+      sql.append(CREATED_AT_TO_SQL);
+      params.add(OffsetDateTime.ofInstant(filter.getOrderCreatedAtTo(), ZoneOffset.UTC));
+    }
+    if (filter.getBurgerName() != null) {
+      sql.append(BURGER_NAME_SQL);
+      params.add("%" + filter.getBurgerName() + "%");
+    }
+    sql.append(GROUP_BY_SQL.formatted(bucketSql));
+
+    return new BoundSql(sql.toString(), params);
+  }
+}
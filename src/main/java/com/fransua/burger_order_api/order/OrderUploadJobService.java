@@ -0,0 +1,309 @@
+package com.fransua.burger_order_api.order;
+
+import com.fransua.burger_order_api.exception.CapacityExceededException;
+import com.fransua.burger_order_api.exception.NotFoundResourceException;
+import com.fransua.burger_order_api.exception.PayloadTooLargeException;
+import com.fransua.burger_order_api.exception.TechnicalFailureException;
+import com.fransua.burger_order_api.order.UploadJob.Status;
+import com.fransua.burger_order_api.order.dto.response.UploadJobResponse;
+import com.fransua.burger_order_api.order.dto.response.UploadStatsResponse;
+import jakarta.annotation.PreDestroy;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+@Slf4j
+@Service
+public class OrderUploadJobService {
+
+  private final OrderService orderService;
+  private final OrderBulkImporter orderBulkImporter;
+  private final NdjsonOrderParser ndjsonOrderParser;
+  private final Path spoolDirectory;
+  private final Duration jobRetention;
+  private final long maxSize;
+  private final ThreadPoolExecutor workers;
+  private final Map<UUID, UploadJob> jobs = new ConcurrentHashMap<>();
+
+  public OrderUploadJobService(
+      OrderService orderService,
+      OrderBulkImporter orderBulkImporter,
+      NdjsonOrderParser ndjsonOrderParser,
+      @Value("${order.upload.spool-dir}") String spoolDirectory,
+      @Value("${order.upload.workers}") int workerCount,
+      @Value("${order.upload.queue-capacity}") int queueCapacity,
+      @Value("${order.upload.max-size}") DataSize maxSize,
+      @Value("${order.upload.job-retention}") Duration jobRetention,
+      @Value("${spring.threads.virtual.enabled}") boolean virtualThreads) {
+    this.orderService = orderService;
+    this.orderBulkImporter = orderBulkImporter;
+    this.ndjsonOrderParser = ndjsonOrderParser;
+    this.spoolDirectory = Path.of(spoolDirectory);
+    this.jobRetention = jobRetention;
+    this.maxSize = maxSize.toBytes();
+    // a full queue rejects new jobs instead of piling up spooled files on disk
+    this.workers =
+        new ThreadPoolExecutor(
+            workerCount,
+            workerCount,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            virtualThreads
+                ? Thread.ofVirtual().name("order-upload-", 0).factory()
+                : Thread.ofPlatform().name("order-upload-", 0).factory());
+  }
+
+  public UploadJobResponse submit(InputStream inputStream, UploadFormat format) {
+    if (workers.getQueue().remainingCapacity() == 0) {
+      throw uploadQueueFull();
+    }
+
+    UploadJob job = spool(inputStream, format);
+
+    jobs.put(job.getId(), job);
+    try {
+      workers.execute(() -> run(job));
+    } catch (RejectedExecutionException e) {
+      jobs.remove(job.getId());
+      deleteSpoolFile(job.getSpoolFile());
+      throw uploadQueueFull();
+    }
+
+    return toResponse(job);
+  }
+
+  public UploadStatsResponse importNow(InputStream inputStream, UploadFormat format) {
+    UploadJob job = spool(inputStream, format);
+
+    try {
+      ingest(job);
+    } catch (Exception e) {
+      throw new TechnicalFailureException("Failed to import orders.", e);
+    } finally {
+      deleteSpoolFile(job.getSpoolFile());
+    }
+
+    return job.getStats();
+  }
+
+  public UploadJobResponse findJob(UUID jobId) {
+    return toResponse(getJob(jobId));
+  }
+
+  public UploadJobResponse cancelJob(UUID jobId) {
+    UploadJob job = getJob(jobId);
+    job.requestCancellation();
+    return toResponse(job);
+  }
+
+  @Scheduled(fixedDelayString = "${order.upload.job-retention}")
+  public void evictFinishedJobs() {
+    Instant threshold = Instant.now().minus(jobRetention);
+    jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(threshold));
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    jobs.values().forEach(UploadJob::requestCancellation);
+    workers.shutdown();
+  }
+
+  private UploadJob getJob(UUID jobId) {
+    UploadJob job = jobs.get(jobId);
+    if (job == null) {
+      throw new NotFoundResourceException("Upload job with ID '" + jobId + "' is not found.");
+    }
+    return job;
+  }
+
+  private UploadJob spool(InputStream inputStream, UploadFormat format) {
+    Path spoolFile = null;
+    try {
+      Files.createDirectories(spoolDirectory);
+      spoolFile = Files.createTempFile(spoolDirectory, "order-upload-", ".json");
+
+      try (OutputStream outputStream = Files.newOutputStream(spoolFile)) {
+        copyAtMostMaxSize(inputStream, outputStream);
+      }
+
+      return new UploadJob(spoolFile, Files.size(spoolFile), format);
+    } catch (IOException e) {
+      deleteSpoolFile(spoolFile);
+      throw new TechnicalFailureException("Failed to spool uploaded orders to disk.", e);
+    } catch (PayloadTooLargeException e) {
+      deleteSpoolFile(spoolFile);
+      throw e;
+    }
+  }
+
+  private void copyAtMostMaxSize(InputStream inputStream, OutputStream outputStream)
+      throws IOException {
+    byte[] buffer = new byte[8192];
+    long copied = 0;
+    int read;
+    while ((read = inputStream.read(buffer)) != -1) {
+      copied += read;
+      if (copied > maxSize) {
+        throw new PayloadTooLargeException(
+            "Uploads are limited to " + maxSize + " bytes, the upload is larger.");
+      }
+      outputStream.write(buffer, 0, read);
+    }
+  }
+
+  private CapacityExceededException uploadQueueFull() {
+    return new CapacityExceededException(
+        "Too many upload jobs are waiting, retry once a running job has finished.");
+  }
+
+  private void run(UploadJob job) {
+    if (job.isCancellationRequested()) {
+      job.finish(Status.CANCELLED);
+      deleteSpoolFile(job.getSpoolFile());
+      return;
+    }
+
+    job.start();
+    log.info("Upload job {} started ({} bytes).", job.getId(), job.getTotalBytes());
+
+    try {
+      ingest(job);
+      job.finish(job.isCancellationRequested() ? Status.CANCELLED : Status.COMPLETED);
+    } catch (Exception e) {
+      log.error("Upload job {} failed.", job.getId(), e);
+      job.finish(Status.FAILED);
+    } finally {
+      deleteSpoolFile(job.getSpoolFile());
+    }
+
+    log.info("Upload job {} finished as {}: {}", job.getId(), job.getStatus(), job.getStats());
+  }
+
+  private void ingest(UploadJob job) throws IOException {
+    switch (job.getFormat()) {
+      case JSON_ARRAY -> ingestJsonArray(job);
+      case NDJSON -> ingestNdjson(job);
+    }
+  }
+
+  private void ingestJsonArray(UploadJob job) throws IOException {
+    try (InputStream inputStream =
+        new ProgressInputStream(Files.newInputStream(job.getSpoolFile()), job)) {
+      orderService.uploadOrders(inputStream, job.getStats(), job::isCancellationRequested);
+    }
+  }
+
+  private void ingestNdjson(UploadJob job) throws IOException {
+    try (NdjsonOrderParser.Records records = ndjsonOrderParser.parse(job.getSpoolFile())) {
+      long totalLines = Math.max(records.totalLines(), 1);
+
+      Iterator<UploadRecord> trackedRecords =
+          new Iterator<>() {
+            private long consumedLines;
+
+            @Override
+            public boolean hasNext() {
+              return records.hasNext();
+            }
+
+            @Override
+            public UploadRecord next() {
+              UploadRecord record = records.next();
+              job.updateProcessedBytes(job.getTotalBytes() * ++consumedLines / totalLines);
+              return record;
+            }
+          };
+
+      orderBulkImporter.importRecords(
+          trackedRecords, job.getStats(), job::isCancellationRequested);
+    }
+  }
+
+  private void deleteSpoolFile(Path spoolFile) {
+    if (spoolFile == null) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(spoolFile);
+    } catch (IOException e) {
+      log.warn("Failed to delete spooled upload {}.", spoolFile, e);
+    }
+  }
+
+  private UploadJobResponse toResponse(UploadJob job) {
+    UploadJobResponse response = new UploadJobResponse();
+
+    response.setJobId(job.getId());
+    response.setStatus(job.getStatus().name());
+    response.setStats(job.getStats());
+    response.setTotalBytes(job.getTotalBytes());
+    response.setProcessedBytes(job.getProcessedBytes().get());
+    response.setSubmittedAt(job.getSubmittedAt());
+    response.setStartedAt(job.getStartedAt());
+    response.setFinishedAt(job.getFinishedAt());
+
+    if (job.getStartedAt() != null) {
+      Instant end = job.isFinished() ? job.getFinishedAt() : Instant.now();
+      long elapsedMillis = Math.max(Duration.between(job.getStartedAt(), end).toMillis(), 1);
+      double elapsedSeconds = elapsedMillis / 1000.0;
+      long processedBytes = job.getProcessedBytes().get();
+
+      response.setRecordsPerSecond(job.getStats().getTotalRecords() / elapsedSeconds);
+
+      if (!job.isFinished() && processedBytes > 0) {
+        double bytesPerSecond = processedBytes / elapsedSeconds;
+        long remainingBytes = Math.max(job.getTotalBytes() - processedBytes, 0);
+        response.setEstimatedSecondsRemaining(Math.round(remainingBytes / bytesPerSecond));
+      }
+    }
+
+    return response;
+  }
+
+  private static class ProgressInputStream extends FilterInputStream {
+
+    private final UploadJob job;
+
+    ProgressInputStream(InputStream inputStream, UploadJob job) {
+      super(inputStream);
+      this.job = job;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int value = super.read();
+      if (value != -1) {
+        job.addProcessedBytes(1);
+      }
+      return value;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      int read = super.read(buffer, offset, length);
+      if (read > 0) {
+        job.addProcessedBytes(read);
+      }
+      return read;
+    }
+  }
+}
@@ -0,0 +1,259 @@
+package com.fransua.burger_order_api.order;
+
+import com.fransua.burger_order_api.exception.TechnicalFailureException;
+import com.fransua.burger_order_api.order.OrderReportQuery.CreatedAtRange;
+import com.fransua.burger_order_api.order.dto.request.FilterCriteriaRequest;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Reads {@code created_at} slices in parallel but appends them strictly in time order, so the
+ * output is identical to the sequential report.
+ */
+@Slf4j
+@Component
+public class ParallelReportExporter {
+
+  private static final int SLICES_PER_WORKER = 4;
+
+  private final OrderReportQuery orderReportQuery;
+  private final TransactionTemplate readOnlyTransaction;
+  private final Path spoolDirectory;
+  private final int parallelism;
+  private final ExecutorService workers;
+
+  public ParallelReportExporter(
+      OrderReportQuery orderReportQuery,
+      PlatformTransactionManager transactionManager,
+      @Value("${order.report.spool-dir}") String spoolDirectory,
+      @Value("${order.report.parallelism}") int parallelism) {
+    this.orderReportQuery = orderReportQuery;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.spoolDirectory = Path.of(spoolDirectory);
+    this.parallelism = parallelism;
+    this.workers =
+        Executors.newFixedThreadPool(
+            parallelism, Thread.ofPlatform().name("report-slice-", 0).factory());
+  }
+
+  public void export(FilterCriteriaRequest filter, OutputStream outputStream) throws IOException {
+    List<Slice> slices = split(filter);
+    if (slices.isEmpty()) {
+      return;
+    }
+
+    Files.createDirectories(spoolDirectory);
+
+    // at most two rounds of slices are read ahead of the one being written
+    int window = parallelism * 2;
+    List<Future<Path>> sliceFiles = new ArrayList<>(slices.size());
+    ExportRun run = new ExportRun();
+    boolean headerWritten = false;
+
+    try {
+      while (sliceFiles.size() < Math.min(window, slices.size())) {
+        sliceFiles.add(submit(slices.get(sliceFiles.size()), filter.getBurgerName(), run));
+      }
+
+      for (int merged = 0; merged < slices.size(); ++merged) {
+        Path sliceFile = await(sliceFiles.get(merged));
+        run.claim(sliceFile);
+        try {
+          if (!headerWritten && Files.size(sliceFile) > 0) {
+            outputStream.write(OrderReportWriter.header());
+            headerWritten = true;
+          }
+          Files.copy(sliceFile, outputStream);
+        } finally {
+          deleteSliceFile(sliceFile);
+        }
+
+        if (sliceFiles.size() < slices.size()) {
+          sliceFiles.add(submit(slices.get(sliceFiles.size()), filter.getBurgerName(), run));
+        }
+      }
+    } finally {
+      // does not wait for running slices: they see the abort and delete their own files
+      sliceFiles.forEach(sliceFile -> sliceFile.cancel(true));
+      run.abort().forEach(this::deleteSliceFile);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    workers.shutdownNow();
+  }
+
+  private List<Slice> split(FilterCriteriaRequest filter) {
+    Instant from = filter.getOrderCreatedAtFrom();
+    Instant to = filter.getOrderCreatedAtTo();
+
+    if (from == null || to == null) {
+      Optional<CreatedAtRange> range = orderReportQuery.findCreatedAtRange();
+      if (range.isEmpty()) {
+        return List.of();
+      }
+      from = from != null ? from : range.get().from();
+      to = to != null ? to : range.get().to();
+    }
+
+    if (from.isAfter(to)) {
+      return List.of();
+    }
+
+    // Duration arithmetic, since toNanos() overflows for ranges longer than ~292 years
+    Duration total = Duration.between(from, to);
+    int maxSlices = parallelism * SLICES_PER_WORKER;
+    int sliceCount =
+        total.compareTo(Duration.ofNanos(maxSlices)) < 0
+            ? (int) Math.max(1, total.toNanos())
+            : maxSlices;
+    Duration sliceLength = total.dividedBy(sliceCount);
+
+    List<Slice> slices = new ArrayList<>(sliceCount);
+    Instant sliceFrom = from;
+    for (int i = 1; i <= sliceCount; ++i) {
+      boolean last = i == sliceCount;
+      Instant sliceTo = last ? to : from.plus(sliceLength.multipliedBy(i));
+      slices.add(new Slice(sliceFrom, sliceTo, !last));
+      sliceFrom = sliceTo;
+    }
+    return slices;
+  }
+
+  private Future<Path> submit(Slice slice, String burgerName, ExportRun run) {
+    return workers.submit(() -> exportSlice(slice, burgerName, run));
+  }
+
+  private Path exportSlice(Slice slice, String burgerName, ExportRun run) throws IOException {
+    if (run.isAborted()) {
+      return null;
+    }
+
+    Path sliceFile = Files.createTempFile(spoolDirectory, "order-report-", ".csv");
+
+    try (OutputStream fileStream = new BufferedOutputStream(Files.newOutputStream(sliceFile));
+        OrderReportWriter reportWriter = OrderReportWriter.openRows(fileStream)) {
+      readOnlyTransaction.executeWithoutResult(
+          status -> {
+            try {
+              orderReportQuery.streamRows(
+                  slice.from(),
+                  slice.to(),
+                  slice.toExclusive(),
+                  burgerName,
+                  run::register,
+                  reportWriter);
+            } finally {
+              run.unregister();
+            }
+          });
+      reportWriter.finish();
+    } catch (IOException | RuntimeException e) {
+      deleteSliceFile(sliceFile);
+      throw e;
+    }
+
+    if (!run.publish(sliceFile)) {
+      deleteSliceFile(sliceFile);
+      return null;
+    }
+    return sliceFile;
+  }
+
+  private Path await(Future<Path> sliceFile) {
+    try {
+      return sliceFile.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new TechnicalFailureException("Interrupted while exporting report slices.", e);
+    } catch (ExecutionException e) {
+      throw new TechnicalFailureException("Failed to export report slice.", e.getCause());
+    }
+  }
+
+  private void deleteSliceFile(Path sliceFile) {
+    try {
+      Files.deleteIfExists(sliceFile);
+    } catch (IOException e) {
+      log.warn("Failed to delete report slice {}.", sliceFile, e);
+    }
+  }
+
+  /**
+   * Hand-off between one export and its slices. A slice file is either published here before the
+   * abort and deleted by {@link #abort()}, or deleted by the slice itself.
+   */
+  private static final class ExportRun {
+
+    private final Set<Path> unclaimedFiles = new HashSet<>();
+    private final Map<Thread, Statement> runningStatements = new ConcurrentHashMap<>();
+    private boolean aborted;
+
+    synchronized boolean isAborted() {
+      return aborted;
+    }
+
+    synchronized boolean publish(Path sliceFile) {
+      return !aborted && unclaimedFiles.add(sliceFile);
+    }
+
+    synchronized void claim(Path sliceFile) {
+      unclaimedFiles.remove(sliceFile);
+    }
+
+    void register(Statement statement) {
+      runningStatements.put(Thread.currentThread(), statement);
+    }
+
+    void unregister() {
+      runningStatements.remove(Thread.currentThread());
+    }
+
+    /** Returns the files no one will claim anymore and cancels the reads still running. */
+    List<Path> abort() {
+      List<Path> orphans;
+      synchronized (this) {
+        aborted = true;
+        orphans = List.copyOf(unclaimedFiles);
+        unclaimedFiles.clear();
+      }
+
+      for (Statement statement : runningStatements.values()) {
+        try {
+          statement.cancel();
+        } catch (SQLException e) {
+          log.warn("Failed to cancel report slice query.", e);
+        }
+      }
+      return orphans;
+    }
+  }
+
+  private record Slice(Instant from, Instant to, boolean toExclusive) {}
+}
@@ -0,0 +1,300 @@
+package com.fransua.burger_order_api.order;
+
+import com.fransua.burger_order_api.burger.BurgerCatalog;
+import com.fransua.burger_order_api.config.TransactionCallbacks;
+import com.fransua.burger_order_api.exception.TechnicalFailureException;
+import com.fransua.burger_order_api.order.dto.request.FilterCriteriaRequest;
+import jakarta.annotation.PostConstruct;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Caches reports for closed time ranges on local disk. Writes made through other nodes or plain SQL
+ * are caught by {@link OrderHistoryVersion}, which only moves when old orders change, so ranges
+ * must close later than its one-minute horizon plus the longest order transaction.
+ */
+@Slf4j
+@Component
+public class ReportCache {
+
+  private static final Duration MIN_CLOSED_AFTER = Duration.ofMinutes(5);
+
+  private final BurgerCatalog burgerCatalog;
+  private final OrderHistoryVersion orderHistoryVersion;
+  private final Path cacheDirectory;
+  private final long maxSizeBytes;
+  private final Duration closedAfter;
+  private final long ttlNanos;
+  private final Map<String, CachedReport> reports = new ConcurrentHashMap<>();
+  private final AtomicLong invalidations = new AtomicLong();
+
+  public ReportCache(
+      BurgerCatalog burgerCatalog,
+      OrderHistoryVersion orderHistoryVersion,
+      @Value("${order.report.cache-dir}") String cacheDirectory,
+      @Value("${order.report.cache-max-size}") DataSize maxSize,
+      @Value("${order.report.cache-closed-after}") Duration closedAfter,
+      @Value("${order.report.cache-ttl}") Duration ttl) {
+    if (closedAfter.compareTo(MIN_CLOSED_AFTER) < 0) {
+      throw new IllegalArgumentException(
+          "order.report.cache-closed-after must be at least " + MIN_CLOSED_AFTER + ".");
+    }
+    this.burgerCatalog = burgerCatalog;
+    this.orderHistoryVersion = orderHistoryVersion;
+    this.cacheDirectory = Path.of(cacheDirectory);
+    this.maxSizeBytes = maxSize.toBytes();
+    this.closedAfter = closedAfter;
+    this.ttlNanos = ttl.toNanos();
+  }
+
+  @PostConstruct
+  public void clearDirectory() throws IOException {
+    // the index lives in memory only, so files left by a previous run are unreachable
+    Files.createDirectories(cacheDirectory);
+    try (Stream<Path> files = Files.list(cacheDirectory)) {
+      files.forEach(this::deleteFile);
+    }
+  }
+
+  /** Only ranges that ended some time ago can no longer receive new orders. */
+  public boolean isCacheable(FilterCriteriaRequest filter) {
+    return maxSizeBytes > 0
+        && filter.getOrderCreatedAtTo() != null
+        && filter.getOrderCreatedAtTo().isBefore(Instant.now().minus(closedAfter));
+  }
+
+  /** Returns {@code false} on a miss. */
+  public boolean serve(
+      FilterCriteriaRequest filter, ReportEncoding encoding, OutputStream outputStream)
+      throws IOException {
+    String key = key(filter, encoding);
+    CachedReport report = reports.get(key);
+
+    if (report == null || report.catalogVersion() != burgerCatalog.current().version()) {
+      return false;
+    }
+    if (System.nanoTime() - report.createdNanos() > ttlNanos
+        || report.historyVersion() != orderHistoryVersion.current()) {
+      if (reports.remove(key, report)) {
+        deleteFile(report.file());
+      }
+      return false;
+    }
+
+    try {
+      transfer(report.file(), outputStream);
+    } catch (NoSuchFileException e) {
+      // evicted between the lookup and the transfer
+      reports.remove(key, report);
+      return false;
+    }
+
+    reports.replace(key, report, report.touched());
+    return true;
+  }
+
+  /** The file is not kept if an invalidation happened while it was being generated. */
+  public void generateAndServe(
+      FilterCriteriaRequest filter,
+      ReportEncoding encoding,
+      OutputStream outputStream,
+      ReportGenerator generator)
+      throws IOException {
+    long invalidationsBefore = invalidations.get();
+    long catalogVersion = burgerCatalog.current().version();
+    long historyVersion = orderHistoryVersion.current();
+
+    Path file = Files.createTempFile(cacheDirectory, "order-report-", ".part");
+    boolean kept = false;
+    try {
+      try (OutputStream fileStream = new BufferedOutputStream(Files.newOutputStream(file))) {
+        generator.writeTo(fileStream);
+      }
+
+      transfer(file, outputStream);
+
+      if (invalidations.get() == invalidationsBefore
+          && catalogVersion == burgerCatalog.current().version()) {
+        keep(
+            key(filter, encoding),
+            filter,
+            file,
+            catalogVersion,
+            historyVersion,
+            invalidationsBefore);
+        kept = true;
+      }
+    } finally {
+      if (!kept) {
+        deleteFile(file);
+      }
+    }
+  }
+
+  public void invalidate(Instant createdAt) {
+    invalidate(createdAt, createdAt);
+  }
+
+  /** Takes effect once the current transaction commits. */
+  public void invalidate(Instant from, Instant to) {
+    TransactionCallbacks.afterCommit(
+        () -> {
+          invalidations.incrementAndGet();
+          reports.forEach(
+              (key, report) -> {
+                if (report.overlaps(from, to) && reports.remove(key, report)) {
+                  deleteFile(report.file());
+                }
+              });
+        });
+  }
+
+  private void keep(
+      String key,
+      FilterCriteriaRequest filter,
+      Path file,
+      long catalogVersion,
+      long historyVersion,
+      long invalidationsBefore)
+      throws IOException {
+    Path cachedFile = cacheDirectory.resolve(key + ".csv");
+    Files.move(file, cachedFile, StandardCopyOption.REPLACE_EXISTING);
+
+    long now = System.nanoTime();
+    CachedReport report =
+        new CachedReport(
+            cachedFile,
+            Files.size(cachedFile),
+            filter.getOrderCreatedAtFrom(),
+            filter.getOrderCreatedAtTo(),
+            catalogVersion,
+            historyVersion,
+            now,
+            now);
+    reports.put(key, report);
+
+    // an invalidation that slipped in after the check above may have missed the new entry
+    if (invalidations.get() != invalidationsBefore && reports.remove(key, report)) {
+      deleteFile(cachedFile);
+      return;
+    }
+
+    evictOverflow();
+  }
+
+  private void evictOverflow() {
+    long totalBytes = reports.values().stream().mapToLong(CachedReport::sizeBytes).sum();
+    if (totalBytes <= maxSizeBytes) {
+      return;
+    }
+
+    List<Map.Entry<String, CachedReport>> leastRecentlyUsed =
+        reports.entrySet().stream()
+            .sorted(Comparator.comparingLong(entry -> entry.getValue().lastAccessNanos()))
+            .toList();
+
+    for (Map.Entry<String, CachedReport> entry : leastRecentlyUsed) {
+      if (totalBytes <= maxSizeBytes) {
+        break;
+      }
+      if (reports.remove(entry.getKey(), entry.getValue())) {
+        deleteFile(entry.getValue().file());
+        totalBytes -= entry.getValue().sizeBytes();
+        log.debug("Evicted cached report {}.", entry.getValue().file());
+      }
+    }
+  }
+
+  private void transfer(Path file, OutputStream outputStream) throws IOException {
+    try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+      WritableByteChannel target = Channels.newChannel(outputStream);
+      long size = fileChannel.size();
+      long position = 0;
+      while (position < size) {
+        position += fileChannel.transferTo(position, size - position, target);
+      }
+    }
+  }
+
+  private String key(FilterCriteriaRequest filter, ReportEncoding encoding) {
+    String burgerName =
+        filter.getBurgerName() != null ? filter.getBurgerName().toLowerCase(Locale.ROOT) : "";
+    String normalized =
+        filter.getOrderCreatedAtFrom() + "|" + filter.getOrderCreatedAtTo() + "|" + burgerName;
+
+    try {
+      byte[] hash =
+          MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(hash) + "." + encoding.getToken();
+    } catch (NoSuchAlgorithmException e) {
+      throw new TechnicalFailureException("SHA-256 is not available.", e);
+    }
+  }
+
+  private void deleteFile(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      log.warn("Failed to delete cached report {}.", file, e);
+    }
+  }
+
+  @FunctionalInterface
+  public interface ReportGenerator {
+
+    void writeTo(OutputStream outputStream) throws IOException;
+  }
+
+  private record CachedReport(
+      Path file,
+      long sizeBytes,
+      Instant createdAtFrom,
+      Instant createdAtTo,
+      long catalogVersion,
+      long historyVersion,
+      long createdNanos,
+      long lastAccessNanos) {
+
+    boolean overlaps(Instant from, Instant to) {
+      return (createdAtFrom == null || !to.isBefore(createdAtFrom)) && !from.isAfter(createdAtTo);
+    }
+
+    CachedReport touched() {
+      return new CachedReport(
+          file,
+          sizeBytes,
+          createdAtFrom,
+          createdAtTo,
+          catalogVersion,
+          historyVersion,
+          createdNanos,
+          System.nanoTime());
+    }
+  }
+}
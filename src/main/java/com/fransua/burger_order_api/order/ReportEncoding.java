@@ -0,0 +1,92 @@
+package com.fransua.burger_order_api.order;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+import lombok.Getter;
+
+/** Content encodings the CSV report can be streamed with, in order of preference. */
+@Getter
+public enum ReportEncoding {
+  ZSTD("zstd"),
+  GZIP("gzip"),
+  IDENTITY("identity");
+
+  private final String token;
+
+  ReportEncoding(String token) {
+    this.token = token;
+  }
+
+  /**
+   * An explicit {@code compression} flag wins; otherwise the encoding with the highest {@code q}
+   * in {@code Accept-Encoding} is used, zstd before gzip on a tie.
+   */
+  public static ReportEncoding negotiate(String requested, String acceptEncoding) {
+    if (requested != null && !requested.isBlank()) {
+      return fromToken(requested.trim());
+    }
+    if (acceptEncoding == null || acceptEncoding.isBlank()) {
+      return IDENTITY;
+    }
+
+    ReportEncoding best = IDENTITY;
+    double bestQuality = 0;
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parts = coding.trim().split(";");
+      ReportEncoding encoding = fromToken(parts[0].trim());
+      double quality = parseQuality(parts);
+
+      if (encoding == IDENTITY || quality <= 0) {
+        continue;
+      }
+      if (quality > bestQuality
+          || (quality == bestQuality && encoding.ordinal() < best.ordinal())) {
+        best = encoding;
+        bestQuality = quality;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Wraps the response stream. Closing the returned stream writes the compressor trailer and
+   * closes {@code outputStream}, so pass a non-closing view when the caller owns it.
+   */
+  public OutputStream wrap(OutputStream outputStream, int bufferSize, int zstdLevel)
+      throws IOException {
+    return switch (this) {
+      case ZSTD ->
+          new BufferedOutputStream(new ZstdOutputStream(outputStream, zstdLevel), bufferSize);
+      case GZIP -> new GZIPOutputStream(outputStream, bufferSize, false);
+      case IDENTITY -> outputStream;
+    };
+  }
+
+  private static ReportEncoding fromToken(String token) {
+    String normalized = token.toLowerCase(Locale.ROOT);
+    for (ReportEncoding encoding : values()) {
+      if (encoding.token.equals(normalized)) {
+        return encoding;
+      }
+    }
+    return IDENTITY;
+  }
+
+  private static double parseQuality(String[] parts) {
+    for (int i = 1; i < parts.length; ++i) {
+      String parameter = parts[i].trim();
+      if (parameter.startsWith("q=")) {
+        try {
+          return Double.parseDouble(parameter.substring(2));
+        } catch (NumberFormatException e) {
+          return 0;
+        }
+      }
+    }
+    return 1;
+  }
+}
@@ -0,0 +1,41 @@
+package com.fransua.burger_order_api.order;
+
+import com.fransua.burger_order_api.exception.InvalidRequestException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import lombok.Getter;
+
+/** Time buckets the order statistics can be grouped by, as {@code date_trunc} fields in UTC. */
+@Getter
+public enum StatsBucket {
+  HOUR("hour"),
+  DAY("day"),
+  WEEK("week");
+
+  private final String token;
+
+  StatsBucket(String token) {
+    this.token = token;
+  }
+
+  /** A missing value falls back to {@link #DAY}, an unknown one is rejected. */
+  public static StatsBucket fromToken(String token) {
+    if (token == null) {
+      return DAY;
+    }
+
+    String normalized = token.trim().toLowerCase(Locale.ROOT);
+    for (StatsBucket bucket : values()) {
+      if (bucket.token.equals(normalized)) {
+        return bucket;
+      }
+    }
+    throw new InvalidRequestException(
+        "Unknown stats bucket '"
+            + token
+            + "', expected one of: "
+            + Arrays.stream(values()).map(StatsBucket::getToken).collect(Collectors.joining(", "))
+            + ".");
+  }
+}
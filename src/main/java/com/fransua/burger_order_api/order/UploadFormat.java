@@ -0,0 +1,16 @@
+package com.fransua.burger_order_api.order;
+
+import org.springframework.http.MediaType;
+
+public enum UploadFormat {
+  JSON_ARRAY,
+  NDJSON;
+
+  public static UploadFormat fromContentType(String contentType) {
+    if (contentType != null
+        && MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(contentType))) {
+      return NDJSON;
+    }
+    return JSON_ARRAY;
+  }
+}
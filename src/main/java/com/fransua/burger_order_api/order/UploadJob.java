@@ -0,0 +1,65 @@
+package com.fransua.burger_order_api.order;
+
+import com.fransua.burger_order_api.order.dto.response.UploadStatsResponse;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+
+@Getter
+public class UploadJob {
+
+  public enum Status {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED
+  }
+
+  private final UUID id = UUID.randomUUID();
+  private final Path spoolFile;
+  private final long totalBytes;
+  private final UploadFormat format;
+  private final Instant submittedAt = Instant.now();
+  private final UploadStatsResponse stats = new UploadStatsResponse();
+  private final AtomicLong processedBytes = new AtomicLong();
+
+  private volatile Status status = Status.QUEUED;
+  private volatile Instant startedAt;
+  private volatile Instant finishedAt;
+  private volatile boolean cancellationRequested;
+
+  public UploadJob(Path spoolFile, long totalBytes, UploadFormat format) {
+    this.spoolFile = spoolFile;
+    this.totalBytes = totalBytes;
+    this.format = format;
+  }
+
+  void start() {
+    startedAt = Instant.now();
+    status = Status.RUNNING;
+  }
+
+  void finish(Status finalStatus) {
+    finishedAt = Instant.now();
+    status = finalStatus;
+  }
+
+  void requestCancellation() {
+    cancellationRequested = true;
+  }
+
+  void addProcessedBytes(long bytes) {
+    processedBytes.addAndGet(bytes);
+  }
+
+  void updateProcessedBytes(long bytes) {
+    processedBytes.set(bytes);
+  }
+
+  public boolean isFinished() {
+    return finishedAt != null;
+  }
+}
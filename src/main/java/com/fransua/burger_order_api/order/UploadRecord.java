@@ -0,0 +1,14 @@
+package com.fransua.burger_order_api.order;
+
+import com.fransua.burger_order_api.order.dto.request.OrderRequest;
+
+public record UploadRecord(long lineNumber, OrderRequest order, RuntimeException parseError) {
+
+  public static UploadRecord parsed(long lineNumber, OrderRequest order) {
+    return new UploadRecord(lineNumber, order, null);
+  }
+
+  public static UploadRecord failed(long lineNumber, RuntimeException parseError) {
+    return new UploadRecord(lineNumber, null, parseError);
+  }
+}
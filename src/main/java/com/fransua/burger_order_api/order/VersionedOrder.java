@@ -0,0 +1,18 @@
+package com.fransua.burger_order_api.order;
+
+import com.fransua.burger_order_api.order.dto.response.OrderResponse;
+
+/**
+ * An order response together with the burger catalog version it was built against. Both versions
+ * go into the entity tag, because the response embeds burger names and prices.
+ */
+public record VersionedOrder(long catalogVersion, OrderResponse response) {
+
+  public static String eTag(long orderVersion, long catalogVersion) {
+    return orderVersion + "." + catalogVersion;
+  }
+
+  public String eTag() {
+    return eTag(response.getVersion(), catalogVersion);
+  }
+}
@@ -0,0 +1,17 @@
+package com.fransua.burger_order_api.order.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.time.Instant;
+import java.util.List;
+import lombok.Data;
+
+/** Selects the orders to delete either by ID or by creation time, never both. */
+@Data
+public class OrderBulkDeleteRequest {
+
+  @Size(min = 1, message = "At least one order ID must be given")
+  private List<@NotNull Long> ids;
+
+  private Instant orderCreatedBefore;
+}
@@ -0,0 +1,13 @@
+package com.fransua.burger_order_api.order.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class OrderMultiGetRequest {
+
+  @NotEmpty(message = "At least one order ID must be requested")
+  private List<@NotNull Long> ids;
+}
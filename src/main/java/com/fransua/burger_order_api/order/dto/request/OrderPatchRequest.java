@@ -0,0 +1,17 @@
+package com.fransua.burger_order_api.order.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * Burger IDs to add to and remove from an order; a repeated ID adds or removes that many units.
+ * With {@code version} set, the patch only applies to that version of the order.
+ */
+@Data
+public class OrderPatchRequest {
+
+  private List<@NotNull Long> add;
+  private List<@NotNull Long> remove;
+  private Long version;
+}
@@ -0,0 +1,13 @@
+package com.fransua.burger_order_api.order.dto.response;
+
+import java.math.BigDecimal;
+import lombok.Data;
+
+@Data
+public class BurgerStatsResponse {
+
+  private Long burgerId;
+  private String burgerName;
+  private long quantity;
+  private BigDecimal revenue;
+}
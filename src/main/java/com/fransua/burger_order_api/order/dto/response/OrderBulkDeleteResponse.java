@@ -0,0 +1,9 @@
+package com.fransua.burger_order_api.order.dto.response;
+
+import lombok.Data;
+
+@Data
+public class OrderBulkDeleteResponse {
+
+  private int deletedCount;
+}
@@ -0,0 +1,11 @@
+package com.fransua.burger_order_api.order.dto.response;
+
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class OrderCursorPageResponse {
+
+  private List<OrderResponse> content;
+  private String nextCursor;
+}
@@ -0,0 +1,15 @@
+package com.fransua.burger_order_api.order.dto.response;
+
+import com.fransua.burger_order_api.burger.dto.response.BurgerResponse;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/** A burger of the order with its quantity; the burger fields stay at the top level. */
+@Data
+@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+public class OrderLineResponse extends BurgerResponse {
+
+  private int quantity;
+}
@@ -0,0 +1,11 @@
+package com.fransua.burger_order_api.order.dto.response;
+
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class OrderMultiGetResponse {
+
+  private List<OrderResponse> orders;
+  private List<Long> notFound;
+}
@@ -0,0 +1,17 @@
+package com.fransua.burger_order_api.order.dto.response;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class OrderStatsResponse {
+
+  private Instant bucketStart;
+  private long orderCount;
+  private long quantity;
+  private BigDecimal revenue;
+  private List<BurgerStatsResponse> burgers = new ArrayList<>();
+}
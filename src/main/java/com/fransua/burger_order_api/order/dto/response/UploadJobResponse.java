@@ -0,0 +1,20 @@
+package com.fransua.burger_order_api.order.dto.response;
+
+import java.time.Instant;
+import java.util.UUID;
+import lombok.Data;
+
+@Data
+public class UploadJobResponse {
+
+  private UUID jobId;
+  private String status;
+  private UploadStatsResponse stats;
+  private long totalBytes;
+  private long processedBytes;
+  private double recordsPerSecond;
+  private Long estimatedSecondsRemaining;
+  private Instant submittedAt;
+  private Instant startedAt;
+  private Instant finishedAt;
+}
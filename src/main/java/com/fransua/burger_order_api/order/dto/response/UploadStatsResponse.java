@@ -2,12 +2,16 @@ package com.fransua.burger_order_api.order.dto.response;
 
 import lombok.Data;
 
+/**
+ * Only the thread importing the upload writes the counts, so the non-atomic increments are safe;
+ * they are volatile so that job status requests read recent values.
+ */
 @Data
 public class UploadStatsResponse {
 
-  private int successfulCount = 0;
-  private int failedCount = 0;
-  private int totalRecords = 0;
+  private volatile int successfulCount = 0;
+  private volatile int failedCount = 0;
+  private volatile int totalRecords = 0;
 
   public void incrementSuccessfulCount() {
     ++successfulCount;
@@ -18,4 +22,9 @@ public class UploadStatsResponse {
     ++failedCount;
     ++totalRecords;
   }
+
+  public void addSuccessfulCount(int count) {
+    successfulCount += count;
+    totalRecords += count;
+  }
 }
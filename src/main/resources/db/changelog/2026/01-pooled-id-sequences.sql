@@ -0,0 +1,33 @@
+--liquibase formatted sql
+
+-- Growing ID_BLOCK_SIZE is safe during a rolling deploy: a node still using the old, smaller
+-- increment takes only the start of each block it reserves. Shrinking is refused, because such
+-- nodes would hand out IDs from blocks that new nodes also get. To shrink, stop every node first
+-- and change the increment by hand.
+-- changeset IlliaFransua:01-pooled-id-sequences runOnChange:true splitStatements:false
+DO
+$$
+    DECLARE
+        sequence_to_migrate TEXT;
+        current_increment   BIGINT;
+    BEGIN
+        FOREACH sequence_to_migrate IN ARRAY ARRAY ['burger_id_sequence', 'order_id_sequence']
+            LOOP
+                SELECT increment_by
+                INTO current_increment
+                FROM pg_sequences
+                WHERE schemaname = current_schema()
+                  AND sequencename = sequence_to_migrate;
+
+                IF ${idBlockSize} < current_increment THEN
+                    RAISE EXCEPTION 'Cannot shrink % increment from % to % while nodes may be running',
+                        sequence_to_migrate, current_increment, ${idBlockSize};
+                END IF;
+
+                -- jump past every block that running nodes may still be handing out
+                PERFORM setval(sequence_to_migrate, nextval(sequence_to_migrate) + current_increment);
+
+                EXECUTE format('ALTER SEQUENCE %I INCREMENT BY %s', sequence_to_migrate, ${idBlockSize});
+            END LOOP;
+    END
+$$;
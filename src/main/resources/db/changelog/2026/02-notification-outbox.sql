@@ -0,0 +1,11 @@
+--liquibase formatted sql
+
+-- changeset IlliaFransua:01-create-notification-outbox
+CREATE TABLE notification_outbox
+(
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    queue_name VARCHAR(255)                NOT NULL,
+    payload    TEXT                        NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_notification_outbox PRIMARY KEY (id)
+);
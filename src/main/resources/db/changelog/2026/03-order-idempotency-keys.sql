@@ -0,0 +1,14 @@
+--liquibase formatted sql
+
+-- changeset IlliaFransua:01-create-order-idempotency-keys
+CREATE TABLE order_idempotency_keys
+(
+    idempotency_key VARCHAR(255)                NOT NULL,
+    request_hash    INTEGER                     NOT NULL,
+    response        TEXT                        NOT NULL,
+    created_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_order_idempotency_keys PRIMARY KEY (idempotency_key)
+);
+
+-- changeset IlliaFransua:02-create-order-idempotency-keys-created-at-index
+CREATE INDEX idx_order_idempotency_keys_created_at ON order_idempotency_keys (created_at);
@@ -0,0 +1,27 @@
+--liquibase formatted sql
+
+-- The indexes are built CONCURRENTLY so writes to orders, order_burgers and burgers keep going
+-- meanwhile. Only the form of the statements changed since they were first applied, so any
+-- checksum is accepted for them.
+
+-- changeset IlliaFransua:01-add-order-burgers-primary-key
+ALTER TABLE order_burgers
+    ADD COLUMN line_id BIGINT GENERATED BY DEFAULT AS IDENTITY;
+
+ALTER TABLE order_burgers
+    ADD CONSTRAINT pk_order_burgers PRIMARY KEY (order_id, line_id);
+
+-- changeset IlliaFransua:02-create-order-burgers-burger-id-index runInTransaction:false
+-- validCheckSum: ANY
+CREATE INDEX CONCURRENTLY idx_order_burgers_burger_id_order_id
+    ON order_burgers (burger_id, order_id);
+
+-- changeset IlliaFransua:03-create-orders-created-at-index runInTransaction:false
+-- validCheckSum: ANY
+CREATE INDEX CONCURRENTLY idx_orders_created_at_id ON orders (created_at, id);
+
+-- changeset IlliaFransua:04-create-burgers-name-trigram-index runInTransaction:false
+-- validCheckSum: ANY
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX CONCURRENTLY idx_burgers_name_trgm ON burgers USING GIN (name gin_trgm_ops);
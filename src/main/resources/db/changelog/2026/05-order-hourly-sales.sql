@@ -0,0 +1,29 @@
+--liquibase formatted sql
+
+-- changeset IlliaFransua:01-create-order-hourly-rollup-tables
+CREATE TABLE order_hourly_counts
+(
+    hour        TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    order_count BIGINT                      NOT NULL,
+    CONSTRAINT pk_order_hourly_counts PRIMARY KEY (hour)
+);
+
+CREATE TABLE order_hourly_sales
+(
+    hour      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    burger_id BIGINT                      NOT NULL,
+    quantity  BIGINT                      NOT NULL,
+    CONSTRAINT pk_order_hourly_sales PRIMARY KEY (hour, burger_id)
+);
+
+-- changeset IlliaFransua:02-backfill-order-hourly-rollup-tables
+INSERT INTO order_hourly_counts (hour, order_count)
+SELECT date_trunc('hour', created_at AT TIME ZONE 'UTC') AT TIME ZONE 'UTC', COUNT(*)
+FROM orders
+GROUP BY 1;
+
+INSERT INTO order_hourly_sales (hour, burger_id, quantity)
+SELECT date_trunc('hour', o.created_at AT TIME ZONE 'UTC') AT TIME ZONE 'UTC', ob.burger_id, COUNT(*)
+FROM orders o
+         JOIN order_burgers ob ON ob.order_id = o.id
+GROUP BY 1, 2;
@@ -0,0 +1,20 @@
+--liquibase formatted sql
+
+-- changeset IlliaFransua:01-add-orders-total-price
+ALTER TABLE orders
+    ADD COLUMN total_price NUMERIC(38, 2) NOT NULL DEFAULT 0;
+
+-- changeset IlliaFransua:02-backfill-orders-total-price
+UPDATE orders o
+SET total_price = totals.total_price
+FROM (SELECT ob.order_id, SUM(b.unit_price) AS total_price
+      FROM order_burgers ob
+               JOIN burgers b ON b.id = ob.burger_id
+      GROUP BY ob.order_id) totals
+WHERE totals.order_id = o.id;
+
+ALTER TABLE orders
+    ALTER COLUMN total_price DROP DEFAULT;
+
+-- changeset IlliaFransua:03-create-orders-total-price-index
+CREATE INDEX idx_orders_total_price_id ON orders (total_price, id);
@@ -0,0 +1,33 @@
+--liquibase formatted sql
+
+-- changeset IlliaFransua:01-add-orders-version
+ALTER TABLE orders
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- changeset IlliaFransua:02-create-burger-catalog-version-table
+CREATE TABLE burger_catalog_version
+(
+    id      SMALLINT NOT NULL,
+    version BIGINT   NOT NULL,
+    CONSTRAINT pk_burger_catalog_version PRIMARY KEY (id),
+    CONSTRAINT chk_burger_catalog_version_single_row CHECK (id = 1)
+);
+
+INSERT INTO burger_catalog_version (id, version)
+VALUES (1, 1);
+
+-- changeset IlliaFransua:03-create-bump-burger-catalog-version-function splitStatements:false
+CREATE FUNCTION bump_burger_catalog_version() RETURNS TRIGGER AS
+$$
+BEGIN
+    UPDATE burger_catalog_version SET version = version + 1 WHERE id = 1;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- changeset IlliaFransua:04-create-burgers-catalog-version-trigger
+CREATE TRIGGER trg_burgers_catalog_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE
+    ON burgers
+    FOR EACH STATEMENT
+EXECUTE FUNCTION bump_burger_catalog_version();
@@ -0,0 +1,38 @@
+--liquibase formatted sql
+
+-- changeset IlliaFransua:01-add-order-burgers-quantity
+ALTER TABLE order_burgers
+    ADD COLUMN quantity INTEGER NOT NULL DEFAULT 1;
+
+-- changeset IlliaFransua:02-collapse-duplicate-order-burgers
+UPDATE order_burgers ob
+SET quantity = lines.quantity
+FROM (SELECT order_id, burger_id, MIN(line_id) AS line_id, COUNT(*) AS quantity
+      FROM order_burgers
+      GROUP BY order_id, burger_id
+      HAVING COUNT(*) > 1) lines
+WHERE ob.order_id = lines.order_id
+  AND ob.line_id = lines.line_id;
+
+DELETE
+FROM order_burgers ob
+    USING order_burgers kept
+WHERE kept.order_id = ob.order_id
+  AND kept.burger_id = ob.burger_id
+  AND kept.line_id < ob.line_id;
+
+-- changeset IlliaFransua:03-key-order-burgers-by-burger
+ALTER TABLE order_burgers
+    DROP CONSTRAINT pk_order_burgers;
+
+ALTER TABLE order_burgers
+    DROP COLUMN line_id;
+
+ALTER TABLE order_burgers
+    ADD CONSTRAINT pk_order_burgers PRIMARY KEY (order_id, burger_id);
+
+ALTER TABLE order_burgers
+    ADD CONSTRAINT chk_order_burgers_quantity_positive CHECK (quantity > 0);
+
+ALTER TABLE order_burgers
+    ALTER COLUMN quantity DROP DEFAULT;
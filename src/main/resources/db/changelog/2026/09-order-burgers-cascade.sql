@@ -0,0 +1,13 @@
+--liquibase formatted sql
+
+-- changeset IlliaFransua:01-cascade-order-burgers-on-order-delete
+ALTER TABLE order_burgers
+    DROP CONSTRAINT fk_order_burgers_order;
+
+ALTER TABLE order_burgers
+    ADD CONSTRAINT fk_order_burgers_order FOREIGN KEY (order_id) REFERENCES orders (id)
+        ON DELETE CASCADE NOT VALID;
+
+-- changeset IlliaFransua:02-validate-order-burgers-cascade
+ALTER TABLE order_burgers
+    VALIDATE CONSTRAINT fk_order_burgers_order;
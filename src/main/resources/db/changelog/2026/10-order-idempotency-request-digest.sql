@@ -0,0 +1,7 @@
+--liquibase formatted sql
+
+-- changeset IlliaFransua:01-widen-order-idempotency-request-hash
+-- keys stored before this change keep their old hash as text; a retry with such a key within
+-- order.idempotency.ttl is answered with 409 instead of creating a second order
+ALTER TABLE order_idempotency_keys
+    ALTER COLUMN request_hash TYPE VARCHAR(64) USING request_hash::TEXT;
@@ -0,0 +1,94 @@
+--liquibase formatted sql
+
+-- changeset IlliaFransua:01-create-order-history-version-table
+CREATE TABLE order_history_version
+(
+    id      SMALLINT NOT NULL,
+    version BIGINT   NOT NULL,
+    CONSTRAINT pk_order_history_version PRIMARY KEY (id),
+    CONSTRAINT chk_order_history_version_single_row CHECK (id = 1)
+);
+
+INSERT INTO order_history_version (id, version)
+VALUES (1, 1);
+
+-- changeset IlliaFransua:02-create-bump-order-history-version-function splitStatements:false
+-- Bumped only by writes that touch orders created more than a minute ago, which new orders never
+-- do, so order creation does not contend on the single row.
+CREATE FUNCTION bump_order_history_version() RETURNS TRIGGER AS
+$$
+DECLARE
+    history_end TIMESTAMP WITH TIME ZONE := clock_timestamp() - INTERVAL '1 minute';
+    touched     BOOLEAN                  := FALSE;
+BEGIN
+    IF TG_TABLE_NAME = 'orders' THEN
+        IF TG_OP IN ('UPDATE', 'DELETE') THEN
+            touched := EXISTS (SELECT 1 FROM old_rows WHERE created_at < history_end);
+        END IF;
+        IF NOT touched AND TG_OP IN ('INSERT', 'UPDATE') THEN
+            touched := EXISTS (SELECT 1 FROM new_rows WHERE created_at < history_end);
+        END IF;
+    ELSE
+        IF TG_OP IN ('UPDATE', 'DELETE') THEN
+            touched := EXISTS (SELECT 1
+                               FROM old_rows r
+                                        JOIN orders o ON o.id = r.order_id
+                               WHERE o.created_at < history_end);
+        END IF;
+        IF NOT touched AND TG_OP IN ('INSERT', 'UPDATE') THEN
+            touched := EXISTS (SELECT 1
+                               FROM new_rows r
+                                        JOIN orders o ON o.id = r.order_id
+                               WHERE o.created_at < history_end);
+        END IF;
+    END IF;
+
+    IF touched THEN
+        UPDATE order_history_version SET version = version + 1 WHERE id = 1;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- changeset IlliaFransua:03-create-order-history-version-triggers
+CREATE TRIGGER trg_orders_history_version_insert
+    AFTER INSERT
+    ON orders
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION bump_order_history_version();
+
+CREATE TRIGGER trg_orders_history_version_update
+    AFTER UPDATE
+    ON orders
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION bump_order_history_version();
+
+CREATE TRIGGER trg_orders_history_version_delete
+    AFTER DELETE
+    ON orders
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION bump_order_history_version();
+
+CREATE TRIGGER trg_order_burgers_history_version_insert
+    AFTER INSERT
+    ON order_burgers
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION bump_order_history_version();
+
+CREATE TRIGGER trg_order_burgers_history_version_update
+    AFTER UPDATE
+    ON order_burgers
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION bump_order_history_version();
+
+CREATE TRIGGER trg_order_burgers_history_version_delete
+    AFTER DELETE
+    ON order_burgers
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION bump_order_history_version();
@@ -17,6 +17,7 @@ import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -119,6 +120,40 @@ public class BurgerControllerTest {
     assertThat(foundBurger2.getUnitPrice()).isEqualByComparingTo(price2);
   }
 
+  @Test
+  @WithMockUser
+  public void findAllBurgers_withMatchingETag_returnsNotModifiedUntilCatalogChanges() {
+    burgerTestFactory.createTestBurgerAndValidate(
+        "TestBurger1_" + UUID.randomUUID(), new BigDecimal("7.6"));
+
+    ResponseEntity<String> firstResponse =
+        testRestTemplate.exchange("/api/burger", HttpMethod.GET, null, String.class);
+    String eTag = firstResponse.getHeaders().getETag();
+
+    assertThat(firstResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(eTag).isNotNull();
+
+    HttpHeaders conditionalHeaders = new HttpHeaders();
+    conditionalHeaders.setIfNoneMatch(eTag);
+    ResponseEntity<String> notModifiedResponse =
+        testRestTemplate.exchange(
+            "/api/burger", HttpMethod.GET, new HttpEntity<>(conditionalHeaders), String.class);
+
+    assertThat(notModifiedResponse.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    assertThat(notModifiedResponse.getBody()).isNull();
+
+    String newName = "TestBurger2_" + UUID.randomUUID();
+    burgerTestFactory.createTestBurgerAndValidate(newName, new BigDecimal("15.8"));
+
+    ResponseEntity<String> changedResponse =
+        testRestTemplate.exchange(
+            "/api/burger", HttpMethod.GET, new HttpEntity<>(conditionalHeaders), String.class);
+
+    assertThat(changedResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(changedResponse.getHeaders().getETag()).isNotEqualTo(eTag);
+    assertThat(changedResponse.getBody()).contains(newName);
+  }
+
   @Test
   @WithMockUser
   public void updateBurger_newNameButTheSamePrice_shouldSuccess() {
@@ -0,0 +1,171 @@
+package com.fransua.burger_order_api;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fransua.burger_order_api.email.NotificationOutbox;
+import com.fransua.burger_order_api.email.NotificationOutboxRelay;
+import com.fransua.burger_order_api.email.RabbitMQConfig;
+import com.fransua.burger_order_api.order.dto.request.OrderCreatedEmailNotificationRequest;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpIOException;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitOperations.OperationsCallback;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// the scheduled relay is pushed out so only the relay runs started by the tests touch the outbox
+@SpringBootTest(properties = "notification.outbox.relay-interval=PT1H")
+public class NotificationOutboxRelayTest {
+
+  @Autowired private NotificationOutbox notificationOutbox;
+  @Autowired private NotificationOutboxRelay notificationOutboxRelay;
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private TransactionTemplate transactionTemplate;
+
+  @MockBean private RabbitTemplate rabbitTemplate;
+
+  private RabbitOperations rabbitOperations;
+
+  @BeforeEach
+  void setUp() {
+    clearOutbox();
+
+    rabbitOperations = mock(RabbitOperations.class);
+    when(rabbitTemplate.invoke(any()))
+        .thenAnswer(
+            invocation ->
+                invocation.<OperationsCallback<?>>getArgument(0).doInRabbit(rabbitOperations));
+  }
+
+  @AfterEach
+  void clearOutbox() {
+    jdbcTemplate.update("DELETE FROM notification_outbox");
+  }
+
+  private OrderCreatedEmailNotificationRequest notification(String subject) {
+    return new OrderCreatedEmailNotificationRequest("test@test.test", subject, "Content");
+  }
+
+  private void enqueueCommitted(String subject) {
+    transactionTemplate.executeWithoutResult(
+        status -> notificationOutbox.enqueue(notification(subject)));
+  }
+
+  private Integer countOutboxRows() {
+    return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notification_outbox", Integer.class);
+  }
+
+  @Test
+  void enqueue_rolledBackTransaction_leavesNoRow() {
+    assertThatThrownBy(
+            () ->
+                transactionTemplate.executeWithoutResult(
+                    status -> {
+                      notificationOutbox.enqueue(notification("Rolled back"));
+                      assertThat(countOutboxRows()).isEqualTo(1);
+                      throw new IllegalStateException("order write failed");
+                    }))
+        .isInstanceOf(IllegalStateException.class);
+
+    assertThat(countOutboxRows()).isEqualTo(0);
+  }
+
+  @Test
+  void enqueue_committedTransaction_keepsRow() {
+    enqueueCommitted("Committed");
+
+    assertThat(countOutboxRows()).isEqualTo(1);
+  }
+
+  @Test
+  void relay_confirmed_deletesRows() {
+    enqueueCommitted("First");
+    enqueueCommitted("Second");
+
+    notificationOutboxRelay.relay();
+
+    verify(rabbitOperations, times(2))
+        .convertAndSend(eq(RabbitMQConfig.EMAIL_QUEUE_NAME), any(Object.class));
+    verify(rabbitOperations).waitForConfirmsOrDie(anyLong());
+    assertThat(countOutboxRows()).isEqualTo(0);
+  }
+
+  @Test
+  void relay_nackReceived_keepsRowsForNextRun() {
+    enqueueCommitted("Nacked");
+    doThrow(new AmqpIOException(new IOException("nacks received")))
+        .when(rabbitOperations)
+        .waitForConfirmsOrDie(anyLong());
+
+    notificationOutboxRelay.relay();
+
+    assertThat(countOutboxRows()).isEqualTo(1);
+  }
+
+  @Test
+  void relay_confirmTimeout_keepsRowsForNextRun() {
+    enqueueCommitted("Timed out");
+    doThrow(new AmqpTimeoutException("confirm timed out"))
+        .when(rabbitOperations)
+        .waitForConfirmsOrDie(anyLong());
+
+    notificationOutboxRelay.relay();
+
+    assertThat(countOutboxRows()).isEqualTo(1);
+
+    rabbitOperations = mock(RabbitOperations.class);
+    notificationOutboxRelay.relay();
+
+    assertThat(countOutboxRows()).isEqualTo(0);
+  }
+
+  @Test
+  void relay_concurrentRelays_publishEachRowOnce() throws Exception {
+    enqueueCommitted("First");
+    enqueueCommitted("Second");
+
+    CountDownLatch publishing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(rabbitTemplate.invoke(any()))
+        .thenAnswer(
+            invocation -> {
+              publishing.countDown();
+              release.await(10, TimeUnit.SECONDS);
+              return invocation.<OperationsCallback<?>>getArgument(0).doInRabbit(rabbitOperations);
+            });
+
+    CompletableFuture<Void> firstRelay =
+        CompletableFuture.runAsync(() -> notificationOutboxRelay.relay());
+    assertThat(publishing.await(10, TimeUnit.SECONDS)).isTrue();
+
+    // the first relay holds the row locks until it commits, so this one must skip every row
+    notificationOutboxRelay.relay();
+    release.countDown();
+    firstRelay.get(10, TimeUnit.SECONDS);
+
+    verify(rabbitTemplate, times(1)).invoke(any());
+    verify(rabbitOperations, times(2)).convertAndSend(anyString(), any(Object.class));
+    assertThat(countOutboxRows()).isEqualTo(0);
+  }
+}
@@ -0,0 +1,113 @@
+package com.fransua.burger_order_api;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+import com.fransua.burger_order_api.burger.BurgerCatalog;
+import com.fransua.burger_order_api.burger.BurgerRepository;
+import com.fransua.burger_order_api.order.OrderBulkImporter;
+import com.fransua.burger_order_api.order.OrderRepository;
+import com.fransua.burger_order_api.order.UploadRecord;
+import com.fransua.burger_order_api.order.dto.request.OrderRequest;
+import com.fransua.burger_order_api.order.dto.response.UploadStatsResponse;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+
+@SpringBootTest(
+    webEnvironment = WebEnvironment.RANDOM_PORT,
+    properties = "order.upload.chunk-size=2")
+public class OrderBulkImporterTest {
+
+  @Autowired private TestRestTemplate testRestTemplate;
+  @Autowired private OrderRepository orderRepository;
+  @Autowired private BurgerRepository burgerRepository;
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private BurgerCatalog burgerCatalog;
+  @Autowired private OrderBulkImporter orderBulkImporter;
+  private BurgerTestFactory burgerTestFactory;
+
+  @BeforeEach
+  public void setUp() {
+    this.burgerTestFactory = new BurgerTestFactory(testRestTemplate);
+  }
+
+  @AfterEach
+  public void deleteAllCreatedOrdersAndBurgers() {
+    orderRepository.deleteAll();
+    burgerRepository.deleteAll();
+  }
+
+  private Long createTestBurger() {
+    return burgerTestFactory
+        .createTestBurgerAndValidate("TestBurger_" + UUID.randomUUID(), new BigDecimal("4.5"))
+        .getBody()
+        .getId();
+  }
+
+  private UploadStatsResponse importOrders(List<List<Long>> burgerIdsPerOrder) {
+    List<UploadRecord> records = new ArrayList<>();
+    for (int i = 0; i < burgerIdsPerOrder.size(); ++i) {
+      OrderRequest orderRequest = new OrderRequest();
+      orderRequest.setBurgerIds(burgerIdsPerOrder.get(i));
+      records.add(UploadRecord.parsed(i + 1, orderRequest));
+    }
+
+    UploadStatsResponse stats = new UploadStatsResponse();
+    orderBulkImporter.importRecords(records.iterator(), stats, () -> false);
+    return stats;
+  }
+
+  @Test
+  @WithMockUser
+  public void importRecords_acrossChunkBoundary_importsEveryChunk() {
+    Long burgerId = createTestBurger();
+
+    UploadStatsResponse stats =
+        importOrders(
+            List.of(
+                List.of(burgerId),
+                List.of(burgerId, burgerId),
+                List.of(burgerId),
+                List.of(burgerId),
+                List.of(burgerId, burgerId, burgerId)));
+
+    assertThat(stats.getTotalRecords()).as("getTotalRecords").isEqualTo(5);
+    assertThat(stats.getSuccessfulCount()).as("getSuccessfulCount").isEqualTo(5);
+    assertThat(stats.getFailedCount()).as("getFailedCount").isEqualTo(0);
+    assertThat(orderRepository.count()).isEqualTo(5L);
+    assertThat(
+            jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(quantity), 0) FROM order_burgers", Long.class))
+        .isEqualTo(8L);
+  }
+
+  @Test
+  @WithMockUser
+  public void importRecords_databaseFailureInsideChunk_failsOnlyTheBadRecord() {
+    Long keptBurgerId = createTestBurger();
+    Long deletedBurgerId = createTestBurger();
+    burgerCatalog.reload();
+
+    // bypasses the service, so the cached catalog still lists the burger and the insert fails
+    jdbcTemplate.update("DELETE FROM burgers WHERE id = ?", deletedBurgerId);
+
+    UploadStatsResponse stats =
+        importOrders(
+            List.of(List.of(keptBurgerId), List.of(deletedBurgerId), List.of(keptBurgerId)));
+
+    assertThat(stats.getTotalRecords()).as("getTotalRecords").isEqualTo(3);
+    assertThat(stats.getSuccessfulCount()).as("getSuccessfulCount").isEqualTo(2);
+    assertThat(stats.getFailedCount()).as("getFailedCount").isEqualTo(1);
+    assertThat(orderRepository.count()).isEqualTo(2L);
+  }
+}
@@ -5,12 +5,25 @@ import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fransua.burger_order_api.burger.BurgerRepository;
+import com.fransua.burger_order_api.burger.dto.request.BurgerRequest;
 import com.fransua.burger_order_api.burger.dto.response.BurgerResponse;
 import com.fransua.burger_order_api.order.OrderRepository;
+import com.fransua.burger_order_api.order.OrderSalesRollup;
 import com.fransua.burger_order_api.order.dto.request.FilterCriteriaRequest;
+import com.fransua.burger_order_api.order.dto.request.OrderBulkDeleteRequest;
+import com.fransua.burger_order_api.order.dto.request.OrderMultiGetRequest;
+import com.fransua.burger_order_api.order.dto.request.OrderPatchRequest;
 import com.fransua.burger_order_api.order.dto.request.OrderRequest;
+import com.fransua.burger_order_api.order.dto.response.BurgerStatsResponse;
+import com.fransua.burger_order_api.order.dto.response.OrderBulkDeleteResponse;
+import com.fransua.burger_order_api.order.dto.response.OrderCursorPageResponse;
+import com.fransua.burger_order_api.order.dto.response.OrderLineResponse;
+import com.fransua.burger_order_api.order.dto.response.OrderMultiGetResponse;
 import com.fransua.burger_order_api.order.dto.response.OrderResponse;
+import com.fransua.burger_order_api.order.dto.response.OrderStatsResponse;
+import com.fransua.burger_order_api.order.dto.response.UploadJobResponse;
 import com.fransua.burger_order_api.order.dto.response.UploadStatsResponse;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -20,11 +33,16 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -41,6 +59,7 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.test.context.support.WithMockUser;
 
 @SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
@@ -49,6 +68,8 @@ public class OrderControllerTest {
   @Autowired private TestRestTemplate testRestTemplate;
   @Autowired private OrderRepository orderRepository;
   @Autowired private BurgerRepository burgerRepository;
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private OrderSalesRollup orderSalesRollup;
   private BurgerTestFactory burgerTestFactory;
 
   @BeforeEach
@@ -130,6 +151,16 @@ public class OrderControllerTest {
     return createOrderAndValidate(testBurgers);
   }
 
+  private Integer countOrderLines(Long orderId) {
+    return jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM order_burgers WHERE order_id = ?", Integer.class, orderId);
+  }
+
+  private Long countRolledUpOrders() {
+    return jdbcTemplate.queryForObject(
+        "SELECT COALESCE(SUM(order_count), 0) FROM order_hourly_counts", Long.class);
+  }
+
   private File createTestJsonFileWithOrdersToUpload() throws IOException {
     Path pathToUploadFile = Path.of("./orders_to_upload_test.json");
 
@@ -272,6 +303,112 @@ public class OrderControllerTest {
     assertThat(badResponse.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
   }
 
+  @Test
+  @WithMockUser
+  public void createOrder_withRepeatedIdempotencyKey() {
+    OrderRequest orderRequest = new OrderRequest();
+    orderRequest.setBurgerIds(createTestBurgers());
+
+    HttpHeaders headers = new HttpHeaders();
+    headers.set("Idempotency-Key", UUID.randomUUID().toString());
+
+    ResponseEntity<OrderResponse> firstResponse =
+        testRestTemplate.exchange(
+            "/api/order",
+            HttpMethod.POST,
+            new HttpEntity<>(orderRequest, headers),
+            OrderResponse.class);
+    ResponseEntity<OrderResponse> retriedResponse =
+        testRestTemplate.exchange(
+            "/api/order",
+            HttpMethod.POST,
+            new HttpEntity<>(orderRequest, headers),
+            OrderResponse.class);
+
+    assertThat(firstResponse.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    assertThat(retriedResponse.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+    assertThat(retriedResponse.getBody()).isNotNull();
+    assertThat(retriedResponse.getBody()).isEqualTo(firstResponse.getBody());
+
+    assertThat(orderRepository.count()).isEqualTo(1);
+  }
+
+  @Test
+  @WithMockUser
+  public void createOrder_withIdempotencyKeyReusedForOtherBurgers() {
+    HttpHeaders headers = new HttpHeaders();
+    headers.set("Idempotency-Key", UUID.randomUUID().toString());
+
+    OrderRequest firstRequest = new OrderRequest();
+    firstRequest.setBurgerIds(createTestBurgers());
+    OrderRequest secondRequest = new OrderRequest();
+    secondRequest.setBurgerIds(createTestBurgers());
+
+    testRestTemplate.exchange(
+        "/api/order", HttpMethod.POST, new HttpEntity<>(firstRequest, headers), String.class);
+    ResponseEntity<String> badResponse =
+        testRestTemplate.exchange(
+            "/api/order", HttpMethod.POST, new HttpEntity<>(secondRequest, headers), String.class);
+
+    assertThat(badResponse.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    assertThat(badResponse.getBody()).contains("different order");
+  }
+
+  @Test
+  @WithMockUser
+  public void createOrder_withTooLongIdempotencyKey_returnsBadRequest() {
+    OrderRequest orderRequest = new OrderRequest();
+    orderRequest.setBurgerIds(createTestBurgers());
+
+    HttpHeaders headers = new HttpHeaders();
+    headers.set("Idempotency-Key", "k".repeat(256));
+
+    ResponseEntity<String> badResponse =
+        testRestTemplate.exchange(
+            "/api/order", HttpMethod.POST, new HttpEntity<>(orderRequest, headers), String.class);
+
+    assertThat(badResponse.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    assertThat(orderRepository.count()).isEqualTo(0);
+  }
+
+  @Test
+  @WithMockUser
+  public void createOrder_withRepeatedBurgerIds_storesOneLinePerBurger() {
+    List<Long> burgerIds = createTestBurgers();
+    Long firstId = burgerIds.get(0);
+    Long secondId = burgerIds.get(1);
+
+    OrderRequest createRequest = new OrderRequest();
+    createRequest.setBurgerIds(List.of(firstId, secondId, firstId, firstId));
+    ResponseEntity<OrderResponse> createResponse =
+        testRestTemplate.postForEntity("/api/order", createRequest, OrderResponse.class);
+
+    assertThat(createResponse.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    OrderResponse createdOrder = createResponse.getBody();
+    assertThat(createdOrder).isNotNull();
+    assertThat(createdOrder.getBurgers().size()).isEqualTo(2);
+    assertThat(createdOrder.getBurgers().get(0).getId()).isEqualTo(firstId);
+    assertThat(createdOrder.getBurgers().get(0).getQuantity()).isEqualTo(3);
+    assertThat(createdOrder.getBurgers().get(1).getQuantity()).isEqualTo(1);
+    assertThat(countOrderLines(createdOrder.getId())).isEqualTo(2);
+
+    OrderRequest updateRequest = new OrderRequest();
+    updateRequest.setBurgerIds(List.of(secondId, firstId, secondId));
+    ResponseEntity<OrderResponse> updateResponse =
+        testRestTemplate.exchange(
+            "/api/order/" + createdOrder.getId(),
+            HttpMethod.PUT,
+            new HttpEntity<>(updateRequest),
+            OrderResponse.class);
+
+    assertThat(updateResponse.getBody()).isNotNull();
+    assertThat(updateResponse.getBody().getBurgers().get(0).getQuantity()).isEqualTo(1);
+    assertThat(updateResponse.getBody().getBurgers().get(1).getId()).isEqualTo(secondId);
+    assertThat(updateResponse.getBody().getBurgers().get(1).getQuantity()).isEqualTo(2);
+    assertThat(countOrderLines(createdOrder.getId())).isEqualTo(2);
+  }
+
   // findOrder
 
   @Test
@@ -302,6 +439,114 @@ public class OrderControllerTest {
     assertThat(foundOrder.getBurgers()).isEqualTo(createdOrder.getBurgers());
   }
 
+  @Test
+  @WithMockUser
+  public void findOrder_servedFromCacheUntilOrderUpdated() {
+    List<Long> burgerIds = createTestBurgers();
+    OrderResponse createdOrder = createOrderAndValidate(List.of(burgerIds.get(0)));
+
+    // a change behind the service's back stays invisible while the order is cached
+    jdbcTemplate.update(
+        "UPDATE orders SET created_at = ? WHERE id = ?",
+        OffsetDateTime.ofInstant(Instant.now().minus(1, ChronoUnit.DAYS), ZoneOffset.UTC),
+        createdOrder.getId());
+
+    ResponseEntity<OrderResponse> cachedResponse =
+        testRestTemplate.exchange(
+            "/api/order/" + createdOrder.getId(), HttpMethod.GET, null, OrderResponse.class);
+
+    assertThat(cachedResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(cachedResponse.getBody()).isEqualTo(createdOrder);
+
+    OrderRequest updateRequest = new OrderRequest();
+    updateRequest.setBurgerIds(List.of(burgerIds.get(1)));
+    testRestTemplate.exchange(
+        "/api/order/" + createdOrder.getId(),
+        HttpMethod.PUT,
+        new HttpEntity<>(updateRequest),
+        OrderResponse.class);
+
+    ResponseEntity<OrderResponse> reloadedResponse =
+        testRestTemplate.exchange(
+            "/api/order/" + createdOrder.getId(), HttpMethod.GET, null, OrderResponse.class);
+
+    assertThat(reloadedResponse.getBody()).isNotNull();
+    assertThat(reloadedResponse.getBody().getCreatedAt())
+        .isBefore(createdOrder.getCreatedAt().minus(1, ChronoUnit.HOURS));
+    assertThat(reloadedResponse.getBody().getBurgers().get(0).getId()).isEqualTo(burgerIds.get(1));
+  }
+
+  @Test
+  @WithMockUser
+  public void findOrder_withMatchingETag_returnsNotModifiedUntilOrderUpdated() {
+    List<Long> burgerIds = createTestBurgers();
+    OrderResponse createdOrder = createOrderAndValidate(List.of(burgerIds.get(0)));
+    String orderUrl = "/api/order/" + createdOrder.getId();
+
+    ResponseEntity<OrderResponse> firstResponse =
+        testRestTemplate.exchange(orderUrl, HttpMethod.GET, null, OrderResponse.class);
+    String eTag = firstResponse.getHeaders().getETag();
+
+    assertThat(firstResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(eTag).isNotNull();
+
+    HttpHeaders conditionalHeaders = new HttpHeaders();
+    conditionalHeaders.setIfNoneMatch(eTag);
+    ResponseEntity<OrderResponse> notModifiedResponse =
+        testRestTemplate.exchange(
+            orderUrl, HttpMethod.GET, new HttpEntity<>(conditionalHeaders), OrderResponse.class);
+
+    assertThat(notModifiedResponse.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    assertThat(notModifiedResponse.getBody()).isNull();
+
+    OrderRequest updateRequest = new OrderRequest();
+    updateRequest.setBurgerIds(List.of(burgerIds.get(1)));
+    ResponseEntity<OrderResponse> updateResponse =
+        testRestTemplate.exchange(
+            orderUrl, HttpMethod.PUT, new HttpEntity<>(updateRequest), OrderResponse.class);
+
+    assertThat(updateResponse.getBody()).isNotNull();
+    assertThat(updateResponse.getBody().getVersion()).isEqualTo(createdOrder.getVersion() + 1);
+
+    ResponseEntity<OrderResponse> changedResponse =
+        testRestTemplate.exchange(
+            orderUrl, HttpMethod.GET, new HttpEntity<>(conditionalHeaders), OrderResponse.class);
+
+    assertThat(changedResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(changedResponse.getHeaders().getETag()).isNotEqualTo(eTag);
+    assertThat(changedResponse.getBody()).isNotNull();
+    assertThat(changedResponse.getBody().getBurgers().get(0).getId()).isEqualTo(burgerIds.get(1));
+  }
+
+  @Test
+  @WithMockUser
+  public void findOrder_changedOutsideThisNode_returnsFreshOrder() {
+    OrderResponse createdOrder = createTestOrder();
+    String orderUrl = "/api/order/" + createdOrder.getId();
+
+    ResponseEntity<OrderResponse> firstResponse =
+        testRestTemplate.exchange(orderUrl, HttpMethod.GET, null, OrderResponse.class);
+    String eTag = firstResponse.getHeaders().getETag();
+
+    // the same write on another instance would leave this node's cache untouched
+    jdbcTemplate.update(
+        "UPDATE order_burgers SET quantity = 3 WHERE order_id = ?", createdOrder.getId());
+    jdbcTemplate.update(
+        "UPDATE orders SET version = version + 1 WHERE id = ?", createdOrder.getId());
+
+    HttpHeaders conditionalHeaders = new HttpHeaders();
+    conditionalHeaders.setIfNoneMatch(eTag);
+    ResponseEntity<OrderResponse> changedResponse =
+        testRestTemplate.exchange(
+            orderUrl, HttpMethod.GET, new HttpEntity<>(conditionalHeaders), OrderResponse.class);
+
+    assertThat(changedResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(changedResponse.getHeaders().getETag()).isNotEqualTo(eTag);
+    assertThat(changedResponse.getBody()).isNotNull();
+    assertThat(changedResponse.getBody().getVersion()).isEqualTo(createdOrder.getVersion() + 1);
+    assertThat(changedResponse.getBody().getBurgers().get(0).getQuantity()).isEqualTo(3);
+  }
+
   @Test
   @WithMockUser
   public void findOrder_notExistingOrderId() {
@@ -315,6 +560,47 @@ public class OrderControllerTest {
     assertThat(badResponse.getBody()).contains("not found");
   }
 
+  // findOrders
+
+  @Test
+  @WithMockUser
+  public void findOrders_returnsOrdersInRequestOrderAndListsMissingIds() {
+    OrderResponse firstOrder = createTestOrder();
+    OrderResponse secondOrder = createTestOrder();
+    long missingId = 88888888L;
+
+    OrderMultiGetRequest request = new OrderMultiGetRequest();
+    request.setIds(List.of(secondOrder.getId(), missingId, firstOrder.getId()));
+
+    ResponseEntity<OrderMultiGetResponse> response =
+        testRestTemplate.postForEntity("/api/order/_mget", request, OrderMultiGetResponse.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(response.getBody()).isNotNull();
+    List<OrderResponse> orders = response.getBody().getOrders();
+    assertThat(orders.size()).isEqualTo(2);
+    assertThat(orders.get(0).getId()).isEqualTo(secondOrder.getId());
+    assertThat(orders.get(0).getBurgers().size()).isEqualTo(secondOrder.getBurgers().size());
+    assertThat(orders.get(1).getId()).isEqualTo(firstOrder.getId());
+    assertThat(response.getBody().getNotFound()).isEqualTo(List.of(missingId));
+  }
+
+  @Test
+  @WithMockUser
+  public void findOrders_tooManyIds_returnsBadRequest() {
+    List<Long> ids = new ArrayList<>();
+    for (long id = 1; id <= 1001; ++id) {
+      ids.add(id);
+    }
+    OrderMultiGetRequest request = new OrderMultiGetRequest();
+    request.setIds(ids);
+
+    ResponseEntity<String> response =
+        testRestTemplate.postForEntity("/api/order/_mget", request, String.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+  }
+
   // updateOrder
 
   @Test
@@ -416,6 +702,87 @@ public class OrderControllerTest {
     assertThat(badResponse.getBody()).contains("not found");
   }
 
+  // patchOrder
+
+  @Test
+  @WithMockUser
+  public void patchOrder_addsAndRemovesLinesAndRejectsStaleVersion() {
+    List<Long> burgerIds = createTestBurgers();
+    OrderResponse createdOrder =
+        createOrderAndValidate(List.of(burgerIds.get(0), burgerIds.get(1)));
+
+    OrderPatchRequest request = new OrderPatchRequest();
+    request.setAdd(List.of(burgerIds.get(0), burgerIds.get(2)));
+    request.setRemove(List.of(burgerIds.get(1)));
+    request.setVersion(createdOrder.getVersion());
+
+    ResponseEntity<OrderResponse> response =
+        testRestTemplate.exchange(
+            "/api/order/" + createdOrder.getId(),
+            HttpMethod.PATCH,
+            new HttpEntity<>(request),
+            OrderResponse.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(response.getBody()).isNotNull();
+
+    OrderResponse patchedOrder = response.getBody();
+    Map<Long, Integer> quantities = new HashMap<>();
+    for (OrderLineResponse line : patchedOrder.getBurgers()) {
+      quantities.put(line.getId(), line.getQuantity());
+    }
+    assertThat(quantities).isEqualTo(Map.of(burgerIds.get(0), 2, burgerIds.get(2), 1));
+    assertThat(patchedOrder.getVersion()).isGreaterThan(createdOrder.getVersion());
+
+    ResponseEntity<String> staleResponse =
+        testRestTemplate.exchange(
+            "/api/order/" + createdOrder.getId(),
+            HttpMethod.PATCH,
+            new HttpEntity<>(request),
+            String.class);
+
+    assertThat(staleResponse.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+  }
+
+  @Test
+  @WithMockUser
+  public void patchOrder_removingMoreThanOrdered_returnsBadRequest() {
+    OrderResponse createdOrder = createTestOrder();
+    Long burgerId = createdOrder.getBurgers().get(0).getId();
+
+    OrderPatchRequest request = new OrderPatchRequest();
+    request.setRemove(List.of(burgerId, burgerId));
+
+    ResponseEntity<String> badResponse =
+        testRestTemplate.exchange(
+            "/api/order/" + createdOrder.getId(),
+            HttpMethod.PATCH,
+            new HttpEntity<>(request),
+            String.class);
+
+    assertThat(badResponse.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    assertThat(countOrderLines(createdOrder.getId())).isEqualTo(createdOrder.getBurgers().size());
+  }
+
+  @Test
+  @WithMockUser
+  public void patchOrder_nullBurgerId_returnsBadRequest() {
+    OrderResponse createdOrder = createTestOrder();
+
+    OrderPatchRequest request = new OrderPatchRequest();
+    request.setAdd(Arrays.asList(createdOrder.getBurgers().get(0).getId(), null));
+
+    ResponseEntity<String> badResponse =
+        testRestTemplate.exchange(
+            "/api/order/" + createdOrder.getId(),
+            HttpMethod.PATCH,
+            new HttpEntity<>(request),
+            String.class);
+
+    assertThat(badResponse.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    assertThat(countOrderLines(createdOrder.getId())).isEqualTo(createdOrder.getBurgers().size());
+  }
+
   // deleteOrder
 
   @Test
@@ -446,6 +813,87 @@ public class OrderControllerTest {
     assertThat(badResponse.getBody()).contains("not found");
   }
 
+  // deleteOrders
+
+  @Test
+  @WithMockUser
+  public void deleteOrders_byIds_deletesExistingOrdersWithLinesAndRollup() {
+    OrderResponse firstOrder = createTestOrder();
+    OrderResponse secondOrder = createTestOrder();
+    OrderResponse keptOrder = createTestOrder();
+    Long rolledUpBefore = countRolledUpOrders();
+
+    OrderBulkDeleteRequest request = new OrderBulkDeleteRequest();
+    request.setIds(List.of(firstOrder.getId(), secondOrder.getId(), firstOrder.getId(), 8888L));
+
+    ResponseEntity<OrderBulkDeleteResponse> response =
+        testRestTemplate.postForEntity(
+            "/api/order/_delete", request, OrderBulkDeleteResponse.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(response.getBody()).isNotNull();
+    assertThat(response.getBody().getDeletedCount()).isEqualTo(2);
+
+    assertThat(orderRepository.existsById(firstOrder.getId())).isFalse();
+    assertThat(orderRepository.existsById(secondOrder.getId())).isFalse();
+    assertThat(orderRepository.existsById(keptOrder.getId())).isTrue();
+    assertThat(countOrderLines(firstOrder.getId())).isEqualTo(0);
+    assertThat(countRolledUpOrders()).isEqualTo(rolledUpBefore - 2);
+
+    ResponseEntity<String> deletedResponse =
+        testRestTemplate.getForEntity("/api/order/" + firstOrder.getId(), String.class);
+    assertThat(deletedResponse.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+  }
+
+  @Test
+  @WithMockUser
+  public void deleteOrders_createdBefore_deletesOnlyOlderOrders() {
+    OrderResponse oldOrder = createTestOrder();
+    OrderResponse newOrder = createTestOrder();
+    jdbcTemplate.update(
+        "UPDATE orders SET created_at = created_at - INTERVAL '400 days' WHERE id = ?",
+        oldOrder.getId());
+
+    OrderBulkDeleteRequest request = new OrderBulkDeleteRequest();
+    request.setOrderCreatedBefore(Instant.now().minus(366, ChronoUnit.DAYS));
+
+    ResponseEntity<OrderBulkDeleteResponse> response =
+        testRestTemplate.postForEntity(
+            "/api/order/_delete", request, OrderBulkDeleteResponse.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(response.getBody()).isNotNull();
+    assertThat(response.getBody().getDeletedCount()).isEqualTo(1);
+
+    assertThat(orderRepository.existsById(oldOrder.getId())).isFalse();
+    assertThat(orderRepository.existsById(newOrder.getId())).isTrue();
+  }
+
+  @Test
+  @WithMockUser
+  public void deleteOrders_cutoffWithinRetentionPeriod_returnsBadRequest() {
+    OrderResponse createdOrder = createTestOrder();
+
+    OrderBulkDeleteRequest request = new OrderBulkDeleteRequest();
+    request.setOrderCreatedBefore(Instant.parse("2100-01-01T00:00:00Z"));
+
+    ResponseEntity<String> badResponse =
+        testRestTemplate.postForEntity("/api/order/_delete", request, String.class);
+
+    assertThat(badResponse.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    assertThat(orderRepository.existsById(createdOrder.getId())).isTrue();
+  }
+
+  @Test
+  @WithMockUser
+  public void deleteOrders_withoutIdsAndCutoff_returnsBadRequest() {
+    ResponseEntity<String> badResponse =
+        testRestTemplate.postForEntity(
+            "/api/order/_delete", new OrderBulkDeleteRequest(), String.class);
+
+    assertThat(badResponse.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+  }
+
   // getPaginatedOrders
 
   @Test
@@ -501,6 +949,105 @@ public class OrderControllerTest {
     assertThat(pageResponse.get("number")).isEqualTo(1);
   }
 
+  @Test
+  @WithMockUser
+  public void getPaginatedOrders_sortedByTotalPriceDesc() {
+    List<Long> burgerIds = createTestBurgers();
+    OrderResponse cheapOrder = createOrderAndValidate(List.of(burgerIds.get(1)));
+    OrderResponse middleOrder = createOrderAndValidate(List.of(burgerIds.get(0)));
+    OrderResponse expensiveOrder =
+        createOrderAndValidate(List.of(burgerIds.get(0), burgerIds.get(2)));
+
+    ResponseEntity<Map<String, Object>> response =
+        testRestTemplate.exchange(
+            "/api/order/_list?sort=totalPrice,desc",
+            HttpMethod.POST,
+            null,
+            new ParameterizedTypeReference<Map<String, Object>>() {});
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(response.getBody()).isNotNull();
+
+    @SuppressWarnings("unchecked")
+    List<Map<String, Object>> content =
+        (List<Map<String, Object>>) response.getBody().get("content");
+    List<Long> ids =
+        content.stream().map(order -> ((Number) order.get("id")).longValue()).toList();
+
+    assertThat(ids)
+        .isEqualTo(List.of(expensiveOrder.getId(), middleOrder.getId(), cheapOrder.getId()));
+    assertThat(response.getBody().get("totalElements")).isEqualTo(3);
+  }
+
+  @Test
+  @WithMockUser
+  public void getOrderSlice_withEstimatedTotal() {
+    for (int i = 0; i < 3; ++i) {
+      createTestOrder();
+    }
+
+    ResponseEntity<Map<String, Object>> response =
+        testRestTemplate.exchange(
+            "/api/order/_list?slice=true&estimateTotal=true&size=2",
+            HttpMethod.POST,
+            null,
+            new ParameterizedTypeReference<Map<String, Object>>() {});
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(response.getBody()).isNotNull();
+
+    Map<String, Object> sliceResponse = response.getBody();
+    assertThat(((List<?>) sliceResponse.get("content")).size()).isEqualTo(2);
+    assertThat(sliceResponse.get("last")).isEqualTo(false);
+    assertThat(sliceResponse.containsKey("totalElements")).isFalse();
+
+    String estimatedTotal = response.getHeaders().getFirst("X-Total-Count-Estimate");
+    assertThat(estimatedTotal).isNotNull();
+    assertThat(Long.parseLong(estimatedTotal)).isGreaterThanOrEqualTo(0);
+  }
+
+  @Test
+  @WithMockUser
+  public void getOrdersByCursor_scrollsThroughAllOrders() {
+    List<Long> createdIds = new ArrayList<>();
+    for (int i = 0; i < 5; ++i) {
+      createdIds.add(createTestOrder().getId());
+    }
+
+    List<Long> scrolledIds = new ArrayList<>();
+    String cursor = "";
+    int pages = 0;
+    do {
+      ResponseEntity<OrderCursorPageResponse> response =
+          testRestTemplate.exchange(
+              "/api/order/_list?size=2&cursor=" + cursor,
+              HttpMethod.POST,
+              null,
+              OrderCursorPageResponse.class);
+
+      assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+      assertThat(response.getBody()).isNotNull();
+
+      response.getBody().getContent().forEach(order -> scrolledIds.add(order.getId()));
+      cursor = response.getBody().getNextCursor();
+      ++pages;
+    } while (cursor != null);
+
+    assertThat(pages).isEqualTo(3);
+    assertThat(scrolledIds).isEqualTo(createdIds);
+  }
+
+  @Test
+  @WithMockUser
+  public void getOrdersByCursor_invalidCursor() {
+    ResponseEntity<String> response =
+        testRestTemplate.exchange(
+            "/api/order/_list?cursor=not-a-cursor", HttpMethod.POST, null, String.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    assertThat(response.getBody()).contains("invalid");
+  }
+
   // downloadReport
 
   @Test
@@ -790,6 +1337,141 @@ public class OrderControllerTest {
     assertThat(csvContent).doesNotContain(orderResponse3.getId().toString());
   }
 
+  @Test
+  @WithMockUser
+  public void downloadReport_parallel_matchesSequentialReport() {
+    createTestOrder();
+    createTestOrder();
+    createTestOrder();
+
+    FilterCriteriaRequest filter = new FilterCriteriaRequest();
+    filter.setOrderCreatedAtFrom(Instant.now().minus(1, ChronoUnit.DAYS));
+    filter.setOrderCreatedAtTo(Instant.now().plus(1, ChronoUnit.DAYS));
+
+    ResponseEntity<byte[]> sequentialResponse =
+        testRestTemplate.exchange(
+            "/api/order/_report", HttpMethod.POST, new HttpEntity<>(filter), byte[].class);
+    ResponseEntity<byte[]> parallelResponse =
+        testRestTemplate.exchange(
+            "/api/order/_report?parallel=true",
+            HttpMethod.POST,
+            new HttpEntity<>(filter),
+            byte[].class);
+
+    assertThat(parallelResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(parallelResponse.getBody()).isNotNull();
+
+    String sequentialCsv = new String(sequentialResponse.getBody(), StandardCharsets.UTF_8);
+    String parallelCsv = new String(parallelResponse.getBody(), StandardCharsets.UTF_8);
+
+    assertThat(parallelCsv).isEqualTo(sequentialCsv);
+  }
+
+  @Test
+  @WithMockUser
+  public void downloadReport_withGzipAcceptEncoding() throws IOException {
+    OrderResponse orderResponse = createTestOrder();
+
+    HttpHeaders headers = new HttpHeaders();
+    headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+
+    ResponseEntity<byte[]> response =
+        testRestTemplate.exchange(
+            "/api/order/_report",
+            HttpMethod.POST,
+            new HttpEntity<>(new FilterCriteriaRequest(), headers),
+            byte[].class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+
+    assertThat(response.getBody()).isNotNull();
+    try (InputStream gzipInputStream =
+        new GZIPInputStream(new ByteArrayInputStream(response.getBody()))) {
+      String csvContent = new String(gzipInputStream.readAllBytes(), StandardCharsets.UTF_8);
+
+      assertThat(csvContent).contains("createdAt");
+      assertThat(csvContent).contains(orderResponse.getId().toString());
+    }
+  }
+
+  @Test
+  @WithMockUser
+  public void downloadReport_closedRange_servedFromCacheUntilOrderDeleted() {
+    OrderResponse orderResponse1 = createTestOrder();
+    OrderResponse orderResponse2 = createTestOrder();
+
+    Instant closedAt = Instant.now().minus(2, ChronoUnit.DAYS);
+    for (OrderResponse orderResponse : List.of(orderResponse1, orderResponse2)) {
+      jdbcTemplate.update(
+          "UPDATE orders SET created_at = ? WHERE id = ?",
+          OffsetDateTime.ofInstant(closedAt, ZoneOffset.UTC),
+          orderResponse.getId());
+    }
+
+    FilterCriteriaRequest filter = new FilterCriteriaRequest();
+    filter.setOrderCreatedAtFrom(Instant.now().minus(3, ChronoUnit.DAYS));
+    filter.setOrderCreatedAtTo(Instant.now().minus(1, ChronoUnit.DAYS));
+
+    ResponseEntity<byte[]> firstResponse =
+        testRestTemplate.exchange(
+            "/api/order/_report", HttpMethod.POST, new HttpEntity<>(filter), byte[].class);
+    ResponseEntity<byte[]> cachedResponse =
+        testRestTemplate.exchange(
+            "/api/order/_report", HttpMethod.POST, new HttpEntity<>(filter), byte[].class);
+
+    assertThat(cachedResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(cachedResponse.getBody()).isEqualTo(firstResponse.getBody());
+
+    String cachedCsv = new String(cachedResponse.getBody(), StandardCharsets.UTF_8);
+    assertThat(cachedCsv).contains(orderResponse1.getId().toString());
+    assertThat(cachedCsv).contains(orderResponse2.getId().toString());
+
+    testRestTemplate.exchange(
+        "/api/order/" + orderResponse1.getId(), HttpMethod.DELETE, null, String.class);
+
+    ResponseEntity<byte[]> regeneratedResponse =
+        testRestTemplate.exchange(
+            "/api/order/_report", HttpMethod.POST, new HttpEntity<>(filter), byte[].class);
+
+    String regeneratedCsv = new String(regeneratedResponse.getBody(), StandardCharsets.UTF_8);
+    assertThat(regeneratedCsv).doesNotContain(orderResponse1.getId().toString());
+    assertThat(regeneratedCsv).contains(orderResponse2.getId().toString());
+  }
+
+  @Test
+  @WithMockUser
+  public void downloadReport_closedRange_regeneratedAfterDeleteOutsideService() {
+    OrderResponse orderResponse1 = createTestOrder();
+    OrderResponse orderResponse2 = createTestOrder();
+
+    Instant closedAt = Instant.now().minus(2, ChronoUnit.DAYS);
+    for (OrderResponse orderResponse : List.of(orderResponse1, orderResponse2)) {
+      jdbcTemplate.update(
+          "UPDATE orders SET created_at = ? WHERE id = ?",
+          OffsetDateTime.ofInstant(closedAt, ZoneOffset.UTC),
+          orderResponse.getId());
+    }
+
+    FilterCriteriaRequest filter = new FilterCriteriaRequest();
+    filter.setOrderCreatedAtFrom(Instant.now().minus(3, ChronoUnit.DAYS));
+    filter.setOrderCreatedAtTo(Instant.now().minus(1, ChronoUnit.DAYS));
+
+    testRestTemplate.exchange(
+        "/api/order/_report", HttpMethod.POST, new HttpEntity<>(filter), byte[].class);
+
+    // as another node or a manual fix would, without invalidating this node's cache
+    jdbcTemplate.update("DELETE FROM orders WHERE id = ?", orderResponse1.getId());
+
+    ResponseEntity<byte[]> regeneratedResponse =
+        testRestTemplate.exchange(
+            "/api/order/_report", HttpMethod.POST, new HttpEntity<>(filter), byte[].class);
+
+    String regeneratedCsv = new String(regeneratedResponse.getBody(), StandardCharsets.UTF_8);
+    assertThat(regeneratedCsv).doesNotContain(orderResponse1.getId().toString());
+    assertThat(regeneratedCsv).contains(orderResponse2.getId().toString());
+  }
+
   @Test
   @WithMockUser
   public void downloadReport_withNullFilter() {
@@ -805,6 +1487,162 @@ public class OrderControllerTest {
     assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
   }
 
+  // getOrderStats
+
+  @Test
+  @WithMockUser
+  public void getOrderStats_aggregatesOrdersAndBurgers() {
+    List<Long> burgerIds = createTestBurgers();
+    createOrderAndValidate(burgerIds);
+    createOrderAndValidate(List.of(burgerIds.get(0)));
+
+    FilterCriteriaRequest filter = new FilterCriteriaRequest();
+    filter.setOrderCreatedAtFrom(Instant.now().minus(1, ChronoUnit.HOURS));
+    filter.setOrderCreatedAtTo(Instant.now().plus(1, ChronoUnit.HOURS));
+
+    ResponseEntity<OrderStatsResponse[]> response =
+        testRestTemplate.exchange(
+            "/api/order/_stats?bucket=week",
+            HttpMethod.POST,
+            new HttpEntity<>(filter),
+            OrderStatsResponse[].class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(response.getBody()).isNotNull();
+
+    List<OrderStatsResponse> buckets = List.of(response.getBody());
+    assertThat(buckets.stream().mapToLong(OrderStatsResponse::getOrderCount).sum()).isEqualTo(2);
+    assertThat(buckets.stream().mapToLong(OrderStatsResponse::getQuantity).sum()).isEqualTo(4);
+    assertThat(
+            buckets.stream()
+                .map(OrderStatsResponse::getRevenue)
+                .reduce(BigDecimal.ZERO, BigDecimal::add))
+        .isEqualByComparingTo(new BigDecimal("41.6"));
+
+    long firstBurgerQuantity =
+        buckets.stream()
+            .flatMap(bucket -> bucket.getBurgers().stream())
+            .filter(burger -> burger.getBurgerId().equals(burgerIds.get(0)))
+            .mapToLong(BurgerStatsResponse::getQuantity)
+            .sum();
+    assertThat(firstBurgerQuantity).isEqualTo(2);
+  }
+
+  @Test
+  @WithMockUser
+  public void getOrderStats_unknownBucket_returnsBadRequest() {
+    FilterCriteriaRequest filter = new FilterCriteriaRequest();
+    filter.setOrderCreatedAtFrom(Instant.now().minus(1, ChronoUnit.HOURS));
+    filter.setOrderCreatedAtTo(Instant.now().plus(1, ChronoUnit.HOURS));
+
+    ResponseEntity<String> badResponse =
+        testRestTemplate.exchange(
+            "/api/order/_stats?bucket=month",
+            HttpMethod.POST,
+            new HttpEntity<>(filter),
+            String.class);
+
+    assertThat(badResponse.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    assertThat(badResponse.getBody()).contains("Unknown stats bucket");
+  }
+
+  @Test
+  @WithMockUser
+  public void getOrderStats_fromRollup_matchesLiveAggregation() {
+    orderSalesRollup.rebuild();
+
+    List<Long> burgerIds = createTestBurgers();
+    createOrderAndValidate(burgerIds);
+    OrderResponse updatedOrder = createOrderAndValidate(List.of(burgerIds.get(0)));
+    OrderResponse deletedOrder =
+        createOrderAndValidate(List.of(burgerIds.get(1), burgerIds.get(2)));
+
+    OrderRequest updateRequest = new OrderRequest();
+    updateRequest.setBurgerIds(List.of(burgerIds.get(1), burgerIds.get(1)));
+    testRestTemplate.exchange(
+        "/api/order/" + updatedOrder.getId(),
+        HttpMethod.PUT,
+        new HttpEntity<>(updateRequest),
+        OrderResponse.class);
+    testRestTemplate.exchange(
+        "/api/order/" + deletedOrder.getId(), HttpMethod.DELETE, null, String.class);
+
+    FilterCriteriaRequest filter = new FilterCriteriaRequest();
+    filter.setOrderCreatedAtFrom(Instant.now().minus(1, ChronoUnit.DAYS));
+    filter.setOrderCreatedAtTo(Instant.now().plus(1, ChronoUnit.DAYS));
+
+    ResponseEntity<OrderStatsResponse[]> liveResponse =
+        testRestTemplate.exchange(
+            "/api/order/_stats?bucket=hour",
+            HttpMethod.POST,
+            new HttpEntity<>(filter),
+            OrderStatsResponse[].class);
+    ResponseEntity<OrderStatsResponse[]> rollupResponse =
+        testRestTemplate.exchange(
+            "/api/order/_stats?bucket=hour&rollup=true",
+            HttpMethod.POST,
+            new HttpEntity<>(filter),
+            OrderStatsResponse[].class);
+
+    assertThat(rollupResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(rollupResponse.getBody()).isNotNull();
+
+    List<OrderStatsResponse> rollupBuckets = List.of(rollupResponse.getBody());
+    assertThat(rollupBuckets.stream().mapToLong(OrderStatsResponse::getOrderCount).sum())
+        .isEqualTo(2);
+    assertThat(rollupBuckets).isEqualTo(List.of(liveResponse.getBody()));
+  }
+
+  @Test
+  @WithMockUser
+  public void getOrderStats_fromRollup_matchesLiveAggregationAfterPriceChange() {
+    orderSalesRollup.rebuild();
+
+    List<Long> burgerIds = createTestBurgers();
+    createOrderAndValidate(List.of(burgerIds.get(0), burgerIds.get(1)));
+    OrderResponse deletedOrder = createOrderAndValidate(List.of(burgerIds.get(0)));
+
+    BurgerRequest burgerRequest = new BurgerRequest();
+    burgerRequest.setName("TestBurger_" + UUID.randomUUID());
+    burgerRequest.setUnitPrice(new BigDecimal("99.9"));
+    ResponseEntity<BurgerResponse> burgerResponse =
+        testRestTemplate.exchange(
+            "/api/burger/" + burgerIds.get(0),
+            HttpMethod.PUT,
+            new HttpEntity<>(burgerRequest),
+            BurgerResponse.class);
+    assertThat(burgerResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+    testRestTemplate.exchange(
+        "/api/order/" + deletedOrder.getId(), HttpMethod.DELETE, null, String.class);
+
+    FilterCriteriaRequest filter = new FilterCriteriaRequest();
+    filter.setOrderCreatedAtFrom(Instant.now().minus(1, ChronoUnit.DAYS));
+    filter.setOrderCreatedAtTo(Instant.now().plus(1, ChronoUnit.DAYS));
+
+    ResponseEntity<OrderStatsResponse[]> liveResponse =
+        testRestTemplate.exchange(
+            "/api/order/_stats?bucket=hour",
+            HttpMethod.POST,
+            new HttpEntity<>(filter),
+            OrderStatsResponse[].class);
+    ResponseEntity<OrderStatsResponse[]> rollupResponse =
+        testRestTemplate.exchange(
+            "/api/order/_stats?bucket=hour&rollup=true",
+            HttpMethod.POST,
+            new HttpEntity<>(filter),
+            OrderStatsResponse[].class);
+
+    assertThat(rollupResponse.getBody()).isNotNull();
+    List<OrderStatsResponse> rollupBuckets = List.of(rollupResponse.getBody());
+    assertThat(
+            rollupBuckets.stream()
+                .map(OrderStatsResponse::getRevenue)
+                .reduce(BigDecimal.ZERO, BigDecimal::add))
+        .isEqualByComparingTo(new BigDecimal("103.1"));
+    assertThat(rollupBuckets).isEqualTo(List.of(liveResponse.getBody()));
+  }
+
   // uploadOrders
 
   @Test
@@ -991,4 +1829,91 @@ public class OrderControllerTest {
     assertThat(stats.getFailedCount()).as("getFailedCount").isNotNull();
     assertThat(stats.getFailedCount()).as("getFailedCount").isEqualTo(0);
   }
+
+  @Test
+  @WithMockUser
+  public void uploadOrders_async_validJson() throws IOException, InterruptedException {
+    File ordersToUploadFile = createTestJsonFileWithOrdersToUpload();
+
+    try (InputStream fileInputStream = new FileInputStream(ordersToUploadFile)) {
+      InputStreamResource resource = new InputStreamResource(fileInputStream);
+
+      HttpHeaders headers = new HttpHeaders();
+      headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+      headers.setContentLength(ordersToUploadFile.length());
+
+      ResponseEntity<UploadJobResponse> response =
+          testRestTemplate.exchange(
+              "/api/order/upload?async=true",
+              HttpMethod.POST,
+              new HttpEntity<InputStreamResource>(resource, headers),
+              UploadJobResponse.class);
+
+      assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+      assertThat(response.getBody()).isNotNull();
+      assertThat(response.getBody().getJobId()).isNotNull();
+      assertThat(response.getBody().getTotalBytes()).isEqualTo(ordersToUploadFile.length());
+
+      UploadJobResponse job = response.getBody();
+      for (int attempt = 0; attempt < 50 && job.getFinishedAt() == null; ++attempt) {
+        Thread.sleep(100);
+        job =
+            testRestTemplate
+                .getForEntity("/api/order/upload/" + job.getJobId(), UploadJobResponse.class)
+                .getBody();
+      }
+
+      assertThat(job.getStatus()).isEqualTo("COMPLETED");
+      assertThat(job.getStats().getTotalRecords()).isEqualTo(3);
+      assertThat(job.getStats().getSuccessfulCount()).isEqualTo(3);
+      assertThat(job.getStats().getFailedCount()).isEqualTo(0);
+    }
+  }
+
+  @Test
+  @WithMockUser
+  public void uploadOrders_validNdjson_withMalformedLine() {
+    ObjectMapper objectMapper = new ObjectMapper();
+    StringBuilder ndjson = new StringBuilder();
+
+    for (int i = 0; i < 3; ++i) {
+      OrderRequest orderRequest = new OrderRequest();
+      orderRequest.setBurgerIds(createTestBurgers());
+      try {
+        ndjson.append(objectMapper.writeValueAsString(orderRequest)).append('\n');
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }
+    ndjson.append("{\"burgerIds\": [1,\n");
+
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.APPLICATION_NDJSON);
+
+    ResponseEntity<UploadStatsResponse> response =
+        testRestTemplate.exchange(
+            "/api/order/upload",
+            HttpMethod.POST,
+            new HttpEntity<>(ndjson.toString().getBytes(StandardCharsets.UTF_8), headers),
+            UploadStatsResponse.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(response.getBody()).isNotNull();
+
+    UploadStatsResponse stats = response.getBody();
+
+    assertThat(stats.getTotalRecords()).as("getTotalRecords").isEqualTo(4);
+    assertThat(stats.getSuccessfulCount()).as("getSuccessfulCount").isEqualTo(3);
+    assertThat(stats.getFailedCount()).as("getFailedCount").isEqualTo(1);
+  }
+
+  @Test
+  @WithMockUser
+  public void findUploadJob_notExistingJobId() {
+    ResponseEntity<String> badResponse =
+        testRestTemplate.getForEntity("/api/order/upload/" + UUID.randomUUID(), String.class);
+
+    assertThat(badResponse.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    assertThat(badResponse.getBody()).contains("not found");
+  }
 }
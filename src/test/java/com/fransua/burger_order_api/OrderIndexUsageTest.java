@@ -0,0 +1,78 @@
+package com.fransua.burger_order_api;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+import com.fransua.burger_order_api.order.BoundSql;
+import com.fransua.burger_order_api.order.OrderReportQuery;
+import com.fransua.burger_order_api.order.OrderStatsQuery;
+import com.fransua.burger_order_api.order.StatsBucket;
+import com.fransua.burger_order_api.order.dto.request.FilterCriteriaRequest;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+public class OrderIndexUsageTest {
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private TransactionTemplate transactionTemplate;
+
+  // the test tables are tiny, so sequential scans are disabled to see which indexes are usable
+  private String explain(String sql, Object... params) {
+    return transactionTemplate.execute(
+        status -> {
+          jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+          List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, params);
+          return String.join("\n", plan);
+        });
+  }
+
+  private String explain(BoundSql query) {
+    return explain(query.sql(), query.params().toArray());
+  }
+
+  @Test
+  void reportCreatedAtRange_usesCreatedAtIndex() {
+    Instant to = Instant.now();
+    String plan = explain(OrderReportQuery.rowsSql(to.minus(1, ChronoUnit.DAYS), to, false, null));
+
+    assertThat(plan).contains("idx_orders_created_at_id");
+  }
+
+  @Test
+  void statsCreatedAtRange_usesCreatedAtIndex() {
+    FilterCriteriaRequest filter = new FilterCriteriaRequest();
+    filter.setOrderCreatedAtFrom(Instant.now().minus(1, ChronoUnit.DAYS));
+    filter.setOrderCreatedAtTo(Instant.now());
+
+    String plan = explain(OrderStatsQuery.aggregateSql(filter, StatsBucket.HOUR));
+
+    assertThat(plan).contains("idx_orders_created_at_id");
+  }
+
+  @Test
+  void orderLinesByOrderId_usePrimaryKey() {
+    String plan = explain("SELECT burger_id FROM order_burgers WHERE order_id = 1");
+
+    assertThat(plan).contains("pk_order_burgers");
+  }
+
+  @Test
+  void orderLinesByBurgerId_useReverseIndex() {
+    String plan = explain("SELECT order_id FROM order_burgers WHERE burger_id = 1");
+
+    assertThat(plan).contains("idx_order_burgers_burger_id_order_id");
+  }
+
+  @Test
+  void reportBurgerNameSubstring_usesTrigramIndex() {
+    String plan = explain(OrderReportQuery.rowsSql(null, null, false, "cheese"));
+
+    assertThat(plan).contains("idx_burgers_name_trgm");
+  }
+}
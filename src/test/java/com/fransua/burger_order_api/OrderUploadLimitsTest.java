@@ -0,0 +1,65 @@
+package com.fransua.burger_order_api;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.test.context.support.WithMockUser;
+
+@SpringBootTest(
+    webEnvironment = WebEnvironment.RANDOM_PORT,
+    properties = "order.upload.max-size=1KB")
+public class OrderUploadLimitsTest {
+
+  @Autowired private TestRestTemplate testRestTemplate;
+
+  private ResponseEntity<String> upload(String url, String ndjson) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.APPLICATION_NDJSON);
+
+    return testRestTemplate.exchange(
+        url,
+        HttpMethod.POST,
+        new HttpEntity<>(ndjson.getBytes(StandardCharsets.UTF_8), headers),
+        String.class);
+  }
+
+  private String ndjsonLargerThanMaxSize() {
+    return "{\"burgerIds\": [1, 2, 3]}\n".repeat(100);
+  }
+
+  @Test
+  @WithMockUser
+  public void uploadOrders_largerThanMaxSize_returnsPayloadTooLarge() {
+    ResponseEntity<String> response = upload("/api/order/upload", ndjsonLargerThanMaxSize());
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE);
+  }
+
+  @Test
+  @WithMockUser
+  public void startUploadJob_largerThanMaxSize_returnsPayloadTooLarge() {
+    ResponseEntity<String> response =
+        upload("/api/order/upload?async=true", ndjsonLargerThanMaxSize());
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE);
+  }
+
+  @Test
+  @WithMockUser
+  public void uploadOrders_withinMaxSize_isAccepted() {
+    ResponseEntity<String> response = upload("/api/order/upload", "{\"burgerIds\": [1]}\n");
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+  }
+}